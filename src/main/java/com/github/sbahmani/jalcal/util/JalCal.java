@@ -18,6 +18,7 @@ package com.github.sbahmani.jalcal.util;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.StringTokenizer;
+import java.util.TimeZone;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,6 +37,13 @@ public class JalCal {
      */
     private static final Pattern JALALI_DATE_PATTERN = Pattern.compile("(\\d*)/(\\d*)/(\\d*)\\s*(\\d*):(\\d*):(\\d*)");
 
+    /**
+     * Default Julian to Gregorian cutover of java.util.GregorianCalendar, 1582-10-15T00:00:00Z
+     */
+    private static final long GREGORIAN_CUTOVER_MILLIS = -12219292800000L;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
     /**
      * Private constructor to prevent instantiation of utility class
      */
@@ -84,15 +92,14 @@ public class JalCal {
      * @return Formatted string representation of Jalali date
      */
     public static String gregorianToJalaliDate(Date date, boolean dayAtFirst) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
+        long fixedFromGregorian = fixedDayOf(date);
 
-        // Convert to fixed day number then to Persian date
-        long fixedFromGregorian = JalCalUtil.fixedFromGregorian(
-                calendar.get(Calendar.YEAR),
-                calendar.get(Calendar.MONTH) + 1,
-                calendar.get(Calendar.DAY_OF_MONTH)
-        );
+        // Use the precomputed strings when a table covering this day is installed
+        JalaliFormatTable table = JalaliFormatTable.getInstalled();
+        if (table != null && table.contains(fixedFromGregorian)) {
+            return table.format(fixedFromGregorian,
+                    dayAtFirst ? JalaliFormatTable.Format.DD_MM_YYYY : JalaliFormatTable.Format.YYYY_MM_DD);
+        }
         long[] persian = JalCalUtil.persianFastFromFixed(fixedFromGregorian);
 
         // Format based on dayAtFirst parameter
@@ -107,6 +114,29 @@ public class JalCal {
         }
     }
 
+    /**
+     * Returns the fixed day number of a date in the default time zone
+     *
+     * @param date The Gregorian date
+     * @return the fixed day number
+     */
+    static long fixedDayOf(Date date) {
+        long millis = date.getTime();
+        TimeZone zone = TimeZone.getDefault();
+        if (millis < GREGORIAN_CUTOVER_MILLIS) {
+            // java.util.Calendar counts days before the cutover in the Julian calendar
+            Calendar calendar = Calendar.getInstance(zone);
+            calendar.setTime(date);
+            return JalCalUtil.fixedFromGregorian(
+                    calendar.get(Calendar.YEAR),
+                    calendar.get(Calendar.MONTH) + 1,
+                    calendar.get(Calendar.DAY_OF_MONTH)
+            );
+        }
+        long localMillis = millis + zone.getOffset(millis);
+        return Math.floorDiv(localMillis, MILLIS_PER_DAY) + JalCalUtil.EPOCH_FIXED_DAY;
+    }
+
     /**
      * Extracts and formats time portion from a Gregorian date
      *
@@ -141,17 +171,7 @@ public class JalCal {
     public static String getPersianDay(Date date) {
         Calendar cal = Calendar.getInstance();
         cal.setTime(date);
-        int i = cal.get(Calendar.DAY_OF_WEEK);
-        return switch (i) {
-            case 1 -> "یکشنبه";
-            case 2 -> "دوشنبه";
-            case 3 -> "سه‌شنبه";
-            case 4 -> "چهارشنبه";
-            case 5 -> "پنجشنبه";
-            case 6 -> "جمعه";
-            case 7 -> "شنبه";
-            default -> "هیچ شنبه";
-        };
+        return JalaliTextFormat.weekdayName(cal.get(Calendar.DAY_OF_WEEK));
     }
 
     /**
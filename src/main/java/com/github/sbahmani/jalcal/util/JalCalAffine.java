@@ -0,0 +1,161 @@
+package com.github.sbahmani.jalcal.util;
+
+import java.util.Collections;
+
+/**
+ * Euclidean affine function (EAF) engine for the fixed-day conversions in {@link JalCalUtil}.
+ * Every division by a constant is replaced with a multiply and a shift, and each conversion
+ * evaluates its year start only once. Agreement with the classic engine over the supported ranges
+ * is checked by {@code JalCalTest}, exhaustively for recent years and sampled up to the bounds.
+ * The Gregorian algorithms follow C. Neri and L. Schneider, "Euclidean affine functions and
+ * their application to calendar algorithms" (2022). Inputs outside the supported ranges fall
+ * back to the classic engine, so results are always identical to it.
+ *
+ * @author sjb
+ */
+final class JalCalAffine {
+
+    private JalCalAffine() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    /**
+     * Fixed date of 1 Farvardin 1 as computed by the classic engine
+     */
+    private static final long PERSIAN_FIRST_DAY = JalCalUtil.fixedFromPersianClassic(1, 1, 1);
+
+    /**
+     * Largest Persian year handled without falling back to the classic engine
+     */
+    static final long PERSIAN_MAX_YEAR = 1L << 20;
+
+    /**
+     * Number of days after {@link #PERSIAN_FIRST_DAY} handled without falling back
+     */
+    static final long PERSIAN_MAX_DAYS = 1L << 26;
+
+    /**
+     * First year of {@link JalCalUtil#NON_LEAP_CORRECTION}
+     */
+    private static final int CORRECTION_FIRST_YEAR = Collections.min(JalCalUtil.NON_LEAP_CORRECTION);
+
+    /**
+     * {@link JalCalUtil#NON_LEAP_CORRECTION} as a bit set indexed by {@code year - CORRECTION_FIRST_YEAR}
+     */
+    private static final long[] CORRECTION_BITS =
+            new long[(Collections.max(JalCalUtil.NON_LEAP_CORRECTION) - CORRECTION_FIRST_YEAR) / 64 + 1];
+
+    static {
+        for (int year : JalCalUtil.NON_LEAP_CORRECTION) {
+            int bit = year - CORRECTION_FIRST_YEAR;
+            CORRECTION_BITS[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Days before the first day of each Persian month, indexed by month (1-12)
+     */
+    private static final int[] PERSIAN_MONTH_OFFSET = {0, 0, 31, 62, 93, 124, 155, 186, 216, 246, 276, 306, 336};
+
+    /**
+     * Shift that moves the fixed date 0000-03-01 of a computational calendar starting in March,
+     * 82 cycles of 400 years early, to zero: {@code 305 + 82 * 146097}
+     */
+    private static final long GREGORIAN_SHIFT = 11980259L;
+
+    /**
+     * Years added so that computational years are never negative: {@code 82 * 400}
+     */
+    private static final long GREGORIAN_YEAR_SHIFT = 32800L;
+
+    /**
+     * Largest fixed date handled without falling back; keeps {@code 4 * n + 3} within 32 bits
+     */
+    static final long GREGORIAN_MAX_DATE = (1L << 30) - 1 - GREGORIAN_SHIFT;
+
+    /**
+     * Largest Gregorian year handled without falling back; keeps {@code 1461 * y} within 32 bits
+     */
+    static final long GREGORIAN_MAX_YEAR = 2_000_000L;
+
+    private static final long LOW_32_BITS = 0xFFFFFFFFL;
+
+    static boolean nonLeapCorrection(long year) {
+        long bit = year - CORRECTION_FIRST_YEAR;
+        return bit >= 0 && bit < CORRECTION_BITS.length * 64L
+                && (CORRECTION_BITS[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Fixed date of 1 Farvardin of a Persian year in {@code [1, PERSIAN_MAX_YEAR]}
+     */
+    private static long persianNewYear(long year) {
+        // (8 * year + 21) / 33
+        long leapDays = ((8 * year + 21) * 1016801L) >>> 25;
+        return PERSIAN_FIRST_DAY + 365 * (year - 1) + leapDays - (nonLeapCorrection(year - 1) ? 1 : 0);
+    }
+
+    static long fixedFromPersian(long year, int month, int day) {
+        if (year < 1 || year > PERSIAN_MAX_YEAR || month < 1 || month > 12) {
+            return JalCalUtil.fixedFromPersianClassic(year, month, day);
+        }
+        return persianNewYear(year) + PERSIAN_MONTH_OFFSET[month] + day - 1;
+    }
+
+    static long[] persianFromFixed(long date) {
+        long days = date - PERSIAN_FIRST_DAY;
+        if (days < 0 || days >= PERSIAN_MAX_DAYS) {
+            return JalCalUtil.persianFromFixedClassic(date);
+        }
+        // 1 + (33 * days + 3) / 12053
+        long year = 1 + (((33 * days + 3) * 729784537L) >>> 43);
+        long dayOfYear = date - persianNewYear(year) + 1;
+        if (dayOfYear == 366 && nonLeapCorrection(year)) {
+            year += 1;
+            dayOfYear = 1;
+        }
+        // ceil(dayOfYear / 31) for the first 186 days, ceil((dayOfYear - 6) / 30) after
+        int month = (int) (dayOfYear <= 186
+                ? ((dayOfYear + 30) * 33826L) >>> 20
+                : ((dayOfYear + 23) * 34953L) >>> 20);
+        return new long[]{year, month, dayOfYear - PERSIAN_MONTH_OFFSET[month]};
+    }
+
+    static long fixedFromGregorian(long year, int month, int day) {
+        if (year < 1 || year > GREGORIAN_MAX_YEAR || month < 1 || month > 12) {
+            return JalCalUtil.fixedFromGregorianClassic(year, month, day);
+        }
+        // computational calendar: years start on 1 March, January and February belong to the previous year
+        long janOrFeb = month <= 2 ? 1 : 0;
+        long y = year + GREGORIAN_YEAR_SHIFT - janOrFeb;
+        long m = month + 12 * janOrFeb;
+        long century = (y * 1374389535L) >>> 37;
+        long yearDays = ((1461 * y) >>> 2) - century + (century >>> 2);
+        long monthDays = (979 * m - 2919) >>> 5;
+        return yearDays + monthDays + day - 1 - GREGORIAN_SHIFT;
+    }
+
+    static long[] gregorianFromFixed(long date) {
+        if (date < 1 || date > GREGORIAN_MAX_DATE) {
+            return JalCalUtil.gregorianFromFixedClassic(date);
+        }
+        // century and day of century
+        long n1 = 4 * (date + GREGORIAN_SHIFT) + 3;
+        long century = (n1 * 963315389L) >>> 47;
+        long dayOfCentury = (n1 - century * 146097) >>> 2;
+        // year of century and day of year
+        long p2 = 2939745L * (4 * dayOfCentury + 3);
+        long yearOfCentury = p2 >>> 32;
+        long dayOfYear = ((p2 & LOW_32_BITS) * 1531969483L) >>> 54;
+        // month and day, counted from March
+        long n3 = 2141 * dayOfYear + 197913;
+        long month = n3 >>> 16;
+        long day = ((n3 & 0xFFFF) * 31345) >>> 26;
+        long janOrFeb = dayOfYear >= 306 ? 1 : 0;
+        return new long[]{
+                100 * century + yearOfCentury - GREGORIAN_YEAR_SHIFT + janOrFeb,
+                month - 12 * janOrFeb,
+                day + 1
+        };
+    }
+}
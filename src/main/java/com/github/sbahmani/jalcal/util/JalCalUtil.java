@@ -1,5 +1,7 @@
 package com.github.sbahmani.jalcal.util;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -28,11 +30,71 @@ public class JalCalUtil {
      */
     private static final long GREGORIAN_EPOCH = 1L;     // Fixed date of start of the Gregorian calendar
 
+    /**
+     * The fixed date of 1970-01-01, epoch day zero
+     */
+    static final long EPOCH_FIXED_DAY = 719163L;
+
+    /**
+     * Conversion engines selectable through {@link #setEngine(Engine)} or the
+     * {@code jalcal.engine} system property.
+     */
+    public enum Engine {
+        /**
+         * The Calendrical Calculations algorithms using 64-bit division and repeated sub-calls
+         */
+        CLASSIC,
+        /**
+         * Euclidean affine functions using multiply and shift only (see {@link JalCalAffine})
+         */
+        EUCLIDEAN_AFFINE
+    }
+
+    /**
+     * The engine used by the public conversion methods
+     */
+    private static volatile Engine engine = defaultEngine();
+
+    private static Engine defaultEngine() {
+        String name = System.getProperty("jalcal.engine");
+        if (name != null) {
+            for (Engine e : Engine.values()) {
+                if (e.name().equalsIgnoreCase(name.trim())) {
+                    return e;
+                }
+            }
+        }
+        return Engine.CLASSIC;
+    }
+
+    /**
+     * Returns the engine used by the public conversion methods.
+     *
+     * @return the current engine
+     */
+    public static Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Selects the engine used by {@link #fixedFromPersianFast(long, int, int)},
+     * {@link #persianFastFromFixed(long)}, {@link #fixedFromGregorian(long, int, int)}
+     * and {@link #gregorianFromFixed(long)}. Both engines return identical results.
+     *
+     * @param newEngine the engine to use
+     */
+    public static void setEngine(Engine newEngine) {
+        if (newEngine == null) {
+            throw new IllegalArgumentException("engine must not be null");
+        }
+        engine = newEngine;
+    }
+
     /**
      * Set of years that are exceptions to the standard leap year rule in the Persian calendar.
      * These years are not leap years despite what the standard rule would indicate.
      */
-    private static final Set<Integer> NON_LEAP_CORRECTION = new HashSet<>(Arrays.asList(
+    static final Set<Integer> NON_LEAP_CORRECTION = new HashSet<>(Arrays.asList(
             1502,
             1601, 1634, 1667,
             1700, 1733, 1766, 1799,
@@ -70,6 +132,16 @@ public class JalCalUtil {
      * @return the fixed date number
      */
     public static long fixedFromPersianFast(long year, int month, int day) {
+        if (engine == Engine.EUCLIDEAN_AFFINE) {
+            return JalCalAffine.fixedFromPersian(year, month, day);
+        }
+        return fixedFromPersianClassic(year, month, day);
+    }
+
+    /**
+     * Classic engine implementation of {@link #fixedFromPersianFast(long, int, int)}.
+     */
+    static long fixedFromPersianClassic(long year, int month, int day) {
         long newYear = PERSIAN_EPOCH - 1 + 365 * (year - 1) + (8 * year + 21) / 33;
         if (NON_LEAP_CORRECTION.contains((int) (year - 1))) {
             newYear -= 1;
@@ -86,9 +158,19 @@ public class JalCalUtil {
      * @return array containing [year, month, day]
      */
     public static long[] persianFastFromFixed(long date) {
-        long daysSinceEpoch = date - fixedFromPersianFast(1, 1, 1);
+        if (engine == Engine.EUCLIDEAN_AFFINE) {
+            return JalCalAffine.persianFromFixed(date);
+        }
+        return persianFromFixedClassic(date);
+    }
+
+    /**
+     * Classic engine implementation of {@link #persianFastFromFixed(long)}.
+     */
+    static long[] persianFromFixedClassic(long date) {
+        long daysSinceEpoch = date - fixedFromPersianClassic(1, 1, 1);
         long year = 1 + (33 * daysSinceEpoch + 3) / 12053;
-        long dayOfYear = date - fixedFromPersianFast(year, 1, 1) + 1;
+        long dayOfYear = date - fixedFromPersianClassic(year, 1, 1) + 1;
 
         if (dayOfYear == 366 && NON_LEAP_CORRECTION.contains((int) year)) {
             year += 1;
@@ -101,7 +183,7 @@ public class JalCalUtil {
         } else {
             month = (int) divCeil(dayOfYear - 6, 30);
         }
-        long day = date - fixedFromPersianFast(year, month, 1) + 1;
+        long day = date - fixedFromPersianClassic(year, month, 1) + 1;
         return new long[]{year, month, day};
     }
 
@@ -121,6 +203,23 @@ public class JalCalUtil {
         }
     }
 
+    /**
+     * Returns the number of days in a Persian month.
+     *
+     * @param year  the Persian year
+     * @param month the Persian month (1-12)
+     * @return 31 for the first six months, 30 for the next five, and 29 or 30 for Esfand
+     */
+    public static int persianMonthLength(long year, int month) {
+        if (month <= 6) {
+            return 31;
+        } else if (month <= 11) {
+            return 30;
+        } else {
+            return persianFastLeapYear(year) ? 30 : 29;
+        }
+    }
+
     /**
      * Determines if a Gregorian year is a leap year.
      *
@@ -140,6 +239,16 @@ public class JalCalUtil {
      * @return the fixed date number
      */
     public static long fixedFromGregorian(long year, int month, int day) {
+        if (engine == Engine.EUCLIDEAN_AFFINE) {
+            return JalCalAffine.fixedFromGregorian(year, month, day);
+        }
+        return fixedFromGregorianClassic(year, month, day);
+    }
+
+    /**
+     * Classic engine implementation of {@link #fixedFromGregorian(long, int, int)}.
+     */
+    static long fixedFromGregorianClassic(long year, int month, int day) {
         return 365 * (year - 1) + (year - 1) / 4 -
                 (year - 1) / 100 +
                 (year - 1) / 400 +
@@ -155,7 +264,7 @@ public class JalCalUtil {
      * @return fixed date of January 1 of given year
      */
     public static long gregorianNewYear(long year) {
-        return fixedFromGregorian(year, 1, 1);
+        return fixedFromGregorianClassic(year, 1, 1);
     }
 
     /**
@@ -189,11 +298,21 @@ public class JalCalUtil {
      * @return array containing [year, month, day]
      */
     public static long[] gregorianFromFixed(long date) {
+        if (engine == Engine.EUCLIDEAN_AFFINE) {
+            return JalCalAffine.gregorianFromFixed(date);
+        }
+        return gregorianFromFixedClassic(date);
+    }
+
+    /**
+     * Classic engine implementation of {@link #gregorianFromFixed(long)}.
+     */
+    static long[] gregorianFromFixedClassic(long date) {
         long year = gregorianYearFromFixed(date);
         long priorDays = date - gregorianNewYear(year);
 
         int correction;
-        if (date < fixedFromGregorian(year, 3, 1)) {
+        if (date < fixedFromGregorianClassic(year, 3, 1)) {
             correction = 0;
         } else if (gregorianLeapYear(year)) {
             correction = 1;
@@ -202,8 +321,20 @@ public class JalCalUtil {
         }
 
         int month = (int) ((12 * (priorDays + correction) + 373) / 367);
-        int day = (int) (date - fixedFromGregorian(year, month, 1) + 1);
+        int day = (int) (date - fixedFromGregorianClassic(year, month, 1) + 1);
 
         return new long[]{year, month, day};
     }
+
+    /**
+     * Returns the instant at which a fixed date starts in a time zone, as
+     * {@link LocalDate#atStartOfDay(ZoneId)} does
+     *
+     * @param date the fixed date
+     * @param zone the time zone
+     * @return the start of the day in epoch milliseconds
+     */
+    static long startOfDayMillis(long date, ZoneId zone) {
+        return LocalDate.ofEpochDay(date - EPOCH_FIXED_DAY).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
 }
\ No newline at end of file
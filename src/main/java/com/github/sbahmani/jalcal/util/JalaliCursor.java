@@ -0,0 +1,208 @@
+package com.github.sbahmani.jalcal.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * JalaliCursor - an incremental Gregorian to Jalali converter for timestamps that arrive in
+ * ascending order, such as logs, ledgers and sensor feeds.
+ * The cursor remembers the current local day, its Jalali year, month and day, and the fixed
+ * days on which the current month starts and ends. Moving to a timestamp on the same day costs
+ * two comparisons; moving forward within the month adds the day difference; crossing a month or
+ * year boundary rolls the month. Only backward moves and jumps of more than
+ * {@link #MAX_ROLLED_MONTHS} months fall back to a full conversion.
+ * <p>
+ * The zone offset is cached until the next transition of the zone rules.
+ * Instances are not thread-safe.
+ *
+ * @author sjb
+ */
+public class JalaliCursor {
+
+    /**
+     * Number of month boundaries rolled incrementally before falling back to a full conversion
+     */
+    public static final int MAX_ROLLED_MONTHS = 2;
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final ZoneRules rules;
+
+    private long offsetMillis;
+    private long offsetValidFrom = Long.MAX_VALUE;
+    private long offsetValidUntil = Long.MIN_VALUE;
+
+    private long dayStartMillis = Long.MAX_VALUE;
+    private long dayEndMillis = Long.MIN_VALUE;
+
+    private boolean positioned;
+    private long fixedDay;
+    private int year;
+    private int month;
+    private int day;
+    private long monthStart;
+    private long monthEnd;
+
+    /**
+     * Creates a cursor for the default time zone, as used by {@link JalCal#gregorianToJalaliDate(Date, boolean)}
+     */
+    public JalaliCursor() {
+        this(TimeZone.getDefault().toZoneId());
+    }
+
+    /**
+     * Creates a cursor for a time zone
+     *
+     * @param zone the zone in which local days are counted
+     */
+    public JalaliCursor(ZoneId zone) {
+        this.rules = zone.getRules();
+    }
+
+    /**
+     * Moves the cursor to the local day of an instant
+     *
+     * @param epochMillis the instant in epoch milliseconds
+     * @return this cursor
+     */
+    public JalaliCursor advanceTo(long epochMillis) {
+        if (epochMillis >= dayStartMillis && epochMillis < dayEndMillis) {
+            return this;
+        }
+        if (epochMillis < offsetValidFrom || epochMillis >= offsetValidUntil) {
+            refreshOffset(epochMillis);
+        }
+        long epochDay = Math.floorDiv(epochMillis + offsetMillis, MILLIS_PER_DAY);
+        moveTo(epochDay + JalCalUtil.EPOCH_FIXED_DAY);
+        dayStartMillis = epochDay * MILLIS_PER_DAY - offsetMillis;
+        dayEndMillis = dayStartMillis + MILLIS_PER_DAY;
+        if (dayStartMillis < offsetValidFrom || dayEndMillis > offsetValidUntil) {
+            // the offset changes during this day, so its bounds are not known
+            dayStartMillis = Long.MAX_VALUE;
+            dayEndMillis = Long.MIN_VALUE;
+        }
+        return this;
+    }
+
+    /**
+     * Moves the cursor to the local day of a date
+     *
+     * @param date the date
+     * @return this cursor
+     */
+    public JalaliCursor advanceTo(Date date) {
+        return advanceTo(date.getTime());
+    }
+
+    /**
+     * Moves the cursor to a fixed day number
+     *
+     * @param fixed the fixed day number (see {@link JalCalUtil#fixedFromGregorian(long, int, int)})
+     * @return this cursor
+     */
+    public JalaliCursor advanceToFixedDay(long fixed) {
+        // the day is not tied to an instant, so the next advanceTo must not take the same-day path
+        dayStartMillis = Long.MAX_VALUE;
+        dayEndMillis = Long.MIN_VALUE;
+        moveTo(fixed);
+        return this;
+    }
+
+    private void moveTo(long fixed) {
+        if (!positioned || fixed < fixedDay) {
+            recompute(fixed);
+            return;
+        }
+        if (fixed >= monthEnd) {
+            int rolled = 0;
+            while (fixed >= monthEnd) {
+                if (++rolled > MAX_ROLLED_MONTHS) {
+                    recompute(fixed);
+                    return;
+                }
+                if (++month > 12) {
+                    month = 1;
+                    year++;
+                }
+                monthStart = monthEnd;
+                monthEnd = monthStart + JalCalUtil.persianMonthLength(year, month);
+            }
+        }
+        day = (int) (fixed - monthStart) + 1;
+        fixedDay = fixed;
+    }
+
+    private void recompute(long fixed) {
+        long[] persian = JalCalUtil.persianFastFromFixed(fixed);
+        year = (int) persian[0];
+        month = (int) persian[1];
+        day = (int) persian[2];
+        monthStart = fixed - day + 1;
+        monthEnd = monthStart + JalCalUtil.persianMonthLength(year, month);
+        fixedDay = fixed;
+        positioned = true;
+    }
+
+    private void refreshOffset(long epochMillis) {
+        Instant instant = Instant.ofEpochMilli(epochMillis);
+        offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+        ZoneOffsetTransition previous = rules.previousTransition(instant);
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        offsetValidFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond() * 1000L;
+        if (previous != null && previous.getOffsetAfter().getTotalSeconds() * 1000L != offsetMillis) {
+            // the instant is itself a transition
+            offsetValidFrom = epochMillis;
+        }
+        offsetValidUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond() * 1000L;
+    }
+
+    /**
+     * @return the fixed day number of the current day
+     */
+    public long getFixedDay() {
+        return fixedDay;
+    }
+
+    /**
+     * @return the Jalali year of the current day
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * @return the Jalali month of the current day (1-12, not zero based)
+     */
+    public int getMonth() {
+        return month;
+    }
+
+    /**
+     * @return the Jalali day of month of the current day
+     */
+    public int getDay() {
+        return day;
+    }
+
+    /**
+     * Formats the current day like {@link JalCal#gregorianToJalaliDate(Date, boolean)}
+     *
+     * @param dayAtFirst If true returns format dd/mm/yyyy, if false returns yyyy/mm/dd
+     * @return Formatted string representation of the Jalali date
+     */
+    public String formatDate(boolean dayAtFirst) {
+        if (dayAtFirst) {
+            return (day < 10 ? "0" : "") + day + "/"
+                    + (month < 10 ? "0" : "") + month + "/"
+                    + year;
+        } else {
+            return year + "/"
+                    + (month < 10 ? "0" : "") + month + "/"
+                    + (day < 10 ? "0" : "") + day;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.github.sbahmani.jalcal.util;
+
+import java.nio.IntBuffer;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * JalaliDateColumn - a growable collection of Jalali dates stored as packed ints.
+ * Each date takes four bytes: {@code year << 9 | month << 5 | day}. Packed values compare in
+ * calendar order, so a sorted column answers range queries by binary search.
+ * <p>
+ * The column tracks whether it is sorted; appending dates in ascending order keeps it sorted
+ * without calling {@link #sort()}. Range queries and summaries require a sorted column.
+ * Instances are not thread-safe.
+ *
+ * @author sjb
+ */
+public class JalaliDateColumn {
+
+    /**
+     * The largest Jalali year a packed date can hold while still sorting as a non-negative int
+     */
+    public static final int MAX_YEAR = (1 << 22) - 1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] data;
+    private int size;
+    private boolean sorted = true;
+
+    /**
+     * Creates an empty column
+     */
+    public JalaliDateColumn() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty column
+     *
+     * @param capacity initial number of dates that fit without growing
+     */
+    public JalaliDateColumn(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative");
+        }
+        this.data = new int[capacity];
+    }
+
+    /**
+     * Packs a Jalali date into an int that sorts in calendar order
+     *
+     * @param year  the Jalali year (0 to {@link #MAX_YEAR})
+     * @param month the month (1-12, not zero based)
+     * @param day   the day of month (1-31)
+     * @return the packed date
+     */
+    public static int pack(int year, int month, int day) {
+        return year << 9 | month << 5 | day;
+    }
+
+    /**
+     * @param packed a packed date
+     * @return the Jalali year
+     */
+    public static int year(int packed) {
+        return packed >>> 9;
+    }
+
+    /**
+     * @param packed a packed date
+     * @return the month (1-12)
+     */
+    public static int month(int packed) {
+        return packed >>> 5 & 0xF;
+    }
+
+    /**
+     * @param packed a packed date
+     * @return the day of month
+     */
+    public static int day(int packed) {
+        return packed & 0x1F;
+    }
+
+    /**
+     * Packs the Jalali date of a fixed day number
+     *
+     * @param fixedDay the fixed day number (see {@link JalCalUtil#fixedFromGregorian(long, int, int)})
+     * @return the packed date
+     */
+    public static int packFixedDay(long fixedDay) {
+        long[] persian = JalCalUtil.persianFastFromFixed(fixedDay);
+        return pack((int) persian[0], (int) persian[1], (int) persian[2]);
+    }
+
+    /**
+     * Builds a column from instants, converting them with a {@link JalaliCursor}.
+     * Sorted input is converted incrementally.
+     *
+     * @param epochMillis instants in epoch milliseconds
+     * @param zone        the zone in which local days are counted
+     * @return a new column with one date per instant, in the same order
+     */
+    public static JalaliDateColumn ofEpochMillis(long[] epochMillis, ZoneId zone) {
+        JalaliDateColumn column = new JalaliDateColumn(epochMillis.length);
+        JalaliCursor cursor = new JalaliCursor(zone);
+        for (long millis : epochMillis) {
+            cursor.advanceTo(millis);
+            column.append(pack(cursor.getYear(), cursor.getMonth(), cursor.getDay()));
+        }
+        return column;
+    }
+
+    /**
+     * Builds a column from dates in the default time zone, like {@link JalCal#gregorianToJalaliDate(Date, boolean)}
+     *
+     * @param dates the dates
+     * @return a new column with one date per element, in the same order
+     */
+    public static JalaliDateColumn ofDates(Date[] dates) {
+        JalaliDateColumn column = new JalaliDateColumn(dates.length);
+        JalaliCursor cursor = new JalaliCursor();
+        for (Date date : dates) {
+            cursor.advanceTo(date);
+            column.append(pack(cursor.getYear(), cursor.getMonth(), cursor.getDay()));
+        }
+        return column;
+    }
+
+    /**
+     * Appends a packed date
+     *
+     * @param packed the packed date
+     */
+    public void append(int packed) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+        }
+        if (size > 0 && packed < data[size - 1]) {
+            sorted = false;
+        }
+        data[size++] = packed;
+    }
+
+    /**
+     * Appends a Jalali date
+     *
+     * @param year  the Jalali year (1 to {@link #MAX_YEAR})
+     * @param month the month (1-12, not zero based)
+     * @param day   the day of month
+     * @throws DateException if the date does not exist or the year cannot be packed
+     */
+    public void append(int year, int month, int day) throws DateException {
+        if (year < 1 || year > MAX_YEAR || month < 1 || month > 12
+                || day < 1 || day > JalCalUtil.persianMonthLength(year, month)) {
+            throw new DateException();
+        }
+        append(pack(year, month, day));
+    }
+
+    /**
+     * @return the number of dates
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index position in the column
+     * @return the packed date at that position
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return data[index];
+    }
+
+    /**
+     * @return true if the dates are in ascending order
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Sorts the dates in ascending order with an LSD radix sort on the packed values
+     */
+    public void sort() {
+        if (sorted) {
+            return;
+        }
+        int max = 0;
+        for (int i = 0; i < size; i++) {
+            max |= data[i];
+        }
+        int[] from = data;
+        int[] to = new int[data.length];
+        int[] counts = new int[257];
+        for (int shift = 0; shift < 32 && (max >>> shift) != 0; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++) {
+                counts[(from[i] >>> shift & 0xFF) + 1]++;
+            }
+            for (int b = 0; b < 256; b++) {
+                counts[b + 1] += counts[b];
+            }
+            for (int i = 0; i < size; i++) {
+                to[counts[from[i] >>> shift & 0xFF]++] = from[i];
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        data = from;
+        sorted = true;
+    }
+
+    /**
+     * Finds the positions of the dates in {@code [fromPacked, toPacked)}
+     *
+     * @param fromPacked inclusive lower bound
+     * @param toPacked   exclusive upper bound
+     * @return array containing [fromIndex, toIndex)
+     * @throws IllegalStateException if the column is not sorted
+     */
+    public int[] indexRange(int fromPacked, int toPacked) {
+        checkSorted();
+        return new int[]{lowerBound(fromPacked), lowerBound(toPacked)};
+    }
+
+    /**
+     * Finds the positions of the dates in a Jalali year
+     *
+     * @param year the Jalali year
+     * @return array containing [fromIndex, toIndex)
+     */
+    public int[] yearRange(int year) {
+        return indexRange(pack(year, 0, 0), pack(year + 1, 0, 0));
+    }
+
+    /**
+     * Finds the positions of the dates in a Jalali month
+     *
+     * @param year  the Jalali year
+     * @param month the month (1-12, not zero based)
+     * @return array containing [fromIndex, toIndex)
+     */
+    public int[] monthRange(int year, int month) {
+        return indexRange(pack(year, month, 0), pack(year, month + 1, 0));
+    }
+
+    /**
+     * Finds the positions of a Jalali day
+     *
+     * @param year  the Jalali year
+     * @param month the month (1-12, not zero based)
+     * @param day   the day of month
+     * @return array containing [fromIndex, toIndex)
+     */
+    public int[] dayRange(int year, int month, int day) {
+        int packed = pack(year, month, day);
+        return indexRange(packed, packed + 1);
+    }
+
+    /**
+     * Counts the dates in {@code [fromPacked, toPacked)}
+     *
+     * @param fromPacked inclusive lower bound
+     * @param toPacked   exclusive upper bound
+     * @return the number of dates in the range
+     */
+    public int count(int fromPacked, int toPacked) {
+        int[] range = indexRange(fromPacked, toPacked);
+        return range[1] - range[0];
+    }
+
+    /**
+     * Lists the distinct months of a sorted column
+     *
+     * @return packed dates of the first day of each month that occurs, in ascending order
+     */
+    public int[] distinctMonths() {
+        return monthSummary(false);
+    }
+
+    /**
+     * Counts the dates in each month of a sorted column
+     *
+     * @return counts parallel to {@link #distinctMonths()}
+     */
+    public int[] countByMonth() {
+        return monthSummary(true);
+    }
+
+    private int[] monthSummary(boolean counts) {
+        checkSorted();
+        int[] result = new int[Math.min(size, DEFAULT_CAPACITY)];
+        int months = 0;
+        int i = 0;
+        while (i < size) {
+            int month = data[i] >>> 5;
+            int next = lowerBound((month + 1) << 5, i, size);
+            if (months == result.length) {
+                result = Arrays.copyOf(result, months * 2);
+            }
+            result[months++] = counts ? next - i : month << 5 | 1;
+            i = next;
+        }
+        return Arrays.copyOf(result, months);
+    }
+
+    /**
+     * Returns a read-only view of the packed dates without copying
+     *
+     * @return a buffer of {@link #size()} packed dates
+     */
+    public IntBuffer asBuffer() {
+        return IntBuffer.wrap(data, 0, size).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns a read-only view of a range of packed dates without copying
+     *
+     * @param fromIndex inclusive start position
+     * @param toIndex   exclusive end position
+     * @return a buffer of the packed dates in the range
+     */
+    public IntBuffer asBuffer(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("[" + fromIndex + ", " + toIndex + ")");
+        }
+        return IntBuffer.wrap(data, fromIndex, toIndex - fromIndex).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Converts every date to the epoch milliseconds of its start of day
+     *
+     * @param zone the zone in which days start
+     * @return array of {@link #size()} instants
+     */
+    public long[] toEpochMillis(ZoneId zone) {
+        long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            int packed = data[i];
+            long fixed = JalCalUtil.fixedFromPersianFast(year(packed), month(packed), day(packed));
+            result[i] = JalCalUtil.startOfDayMillis(fixed, zone);
+        }
+        return result;
+    }
+
+    /**
+     * Formats a date like {@link JalCal#gregorianToJalaliDate(Date, boolean)}
+     *
+     * @param index      position in the column
+     * @param dayAtFirst If true returns format dd/mm/yyyy, if false returns yyyy/mm/dd
+     * @return the formatted date
+     */
+    public String format(int index, boolean dayAtFirst) {
+        return formatTo(new StringBuilder(10), index, dayAtFirst).toString();
+    }
+
+    /**
+     * Appends a formatted date to a builder without intermediate strings
+     *
+     * @param sb         the builder to append to
+     * @param index      position in the column
+     * @param dayAtFirst If true appends format dd/mm/yyyy, if false appends yyyy/mm/dd
+     * @return the builder
+     */
+    public StringBuilder formatTo(StringBuilder sb, int index, boolean dayAtFirst) {
+        int packed = get(index);
+        int month = month(packed);
+        int day = day(packed);
+        if (dayAtFirst) {
+            sb.append((char) ('0' + day / 10)).append((char) ('0' + day % 10)).append('/')
+                    .append((char) ('0' + month / 10)).append((char) ('0' + month % 10)).append('/')
+                    .append(year(packed));
+        } else {
+            sb.append(year(packed)).append('/')
+                    .append((char) ('0' + month / 10)).append((char) ('0' + month % 10)).append('/')
+                    .append((char) ('0' + day / 10)).append((char) ('0' + day % 10));
+        }
+        return sb;
+    }
+
+    private void checkSorted() {
+        if (!sorted) {
+            throw new IllegalStateException("column is not sorted");
+        }
+    }
+
+    private int lowerBound(int key) {
+        return lowerBound(key, 0, size);
+    }
+
+    private int lowerBound(int key, int from, int to) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (data[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -58,6 +58,10 @@ public class JalaliDateHelper {
      * Returns null if conversion fails
      */
     public static String convertToJalaliDateFormat(Date date) {
+        String fromTable = formatFromInstalledTable(date, JalaliFormatTable.Format.YYMMDD);
+        if (fromTable != null) {
+            return fromTable;
+        }
         String retVal = null;
         String nowgregorianToJalaliDate = JalCal.gregorianToJalaliDate(date, true);
         Matcher matcher = DATE_PATTERN.matcher(nowgregorianToJalaliDate);
@@ -77,6 +81,10 @@ public class JalaliDateHelper {
      * Returns null if conversion fails
      */
     public static String convertToJalali4DigitSlashDateFormat(Date date) {
+        String fromTable = formatFromInstalledTable(date, JalaliFormatTable.Format.YYYY_MM_DD);
+        if (fromTable != null) {
+            return fromTable;
+        }
         String retVal = null;
         String nowgregorianToJalaliDate = JalCal.gregorianToJalaliDate(date, true);
         Matcher matcher = DATE_PATTERN.matcher(nowgregorianToJalaliDate);
@@ -89,6 +97,22 @@ public class JalaliDateHelper {
         return retVal;
     }
 
+    /**
+     * Looks up a formatted date in the installed {@link JalaliFormatTable}
+     *
+     * @param date   The Gregorian date to convert (java.util.Date)
+     * @param format The format to look up
+     * @return String The shared formatted date, or null if no table is installed or the date is outside its window
+     */
+    private static String formatFromInstalledTable(Date date, JalaliFormatTable.Format format) {
+        JalaliFormatTable table = JalaliFormatTable.getInstalled();
+        if (table == null) {
+            return null;
+        }
+        long fixedDay = JalCal.fixedDayOf(date);
+        return table.contains(fixedDay) ? table.format(fixedDay, format) : null;
+    }
+
     /**
      * Converts a Date object's time component to six-digit time format
      *
@@ -157,6 +181,37 @@ public class JalaliDateHelper {
                 Integer.parseInt(timematcher.group(3)));
     }
 
+    /**
+     * Extracts a Java Date object from Jalali date and time strings with a two-digit year
+     * Unlike {@link #extractDateFromJalaliDateTimeIn1300(String, String)} the century is chosen with a pivot,
+     * so dates in the 1400s are supported
+     *
+     * @param date  Six-digit Jalali date string in format yymmdd (e.g., "020715" for 15/07/1402 with pivot 50)
+     * @param time  Six-digit time string in format hhmmss (e.g., "235959" for 23:59:59)
+     * @param pivot Two-digit years below the pivot are in the 1400s, the others in the 1300s
+     * @return Date A standard Java Date object representing the given Jalali datetime
+     * @throws DateException         If conversion fails or input format is invalid
+     * @throws IllegalStateException If the date or time format is invalid
+     * @see JalaliDateParser#expandYear(int, int)
+     */
+    public static Date extractDateFromJalaliShortDateTime(String date, String time, int pivot) throws DateException {
+        Matcher timematcher = SIX_DIGIT_PATTERN.matcher(time);
+        if (!timematcher.find()) {
+            throw new IllegalStateException("time format invalid");
+        }
+        Matcher datematcher = SIX_DIGIT_PATTERN.matcher(date);
+        if (!datematcher.find()) {
+            throw new IllegalStateException("date format invalid");
+        }
+        return JalCal.jalaliToGregorian(
+                JalaliDateParser.expandYear(Integer.parseInt(datematcher.group(1)), pivot),
+                Integer.parseInt(datematcher.group(2)),
+                Integer.parseInt(datematcher.group(3)),
+                Integer.parseInt(timematcher.group(1)),
+                Integer.parseInt(timematcher.group(2)),
+                Integer.parseInt(timematcher.group(3)));
+    }
+
     /**
      * Extracts a Java Date object from Jalali date and time strings
      * Uses full four-digit year format for dates
@@ -0,0 +1,531 @@
+package com.github.sbahmani.jalcal.util;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * JalaliDateParser - a column-level parser for Jalali date strings that share a layout.
+ * The parser samples the first values of a column, detects the layout (separator, field order,
+ * 2- or 4-digit year and an optional time part) and then parses every value with a
+ * hand-written fast path for that layout. It sniffs again only when a value does not match
+ * the locked layout, so consistent inputs never pay for a second attempt. Sniffing scores the
+ * layouts of all sampled values, so blank cells or a header row do not prevent detection, and a
+ * re-sniff keeps the locked layout unless another one fits the following values better.
+ * <p>
+ * Supported date parts are {@code yyyy/MM/dd}, {@code dd/MM/yyyy}, {@code yy/MM/dd} and
+ * {@code dd/MM/yy} with {@code /}, {@code -} or {@code .} as separator, and the compact forms
+ * {@code yyyyMMdd}, {@code ddMMyyyy}, {@code yyMMdd} and {@code ddMMyy}. The optional time part
+ * follows after whitespace as {@code HH:mm:ss}, {@code HH:mm} or {@code HHmmss}.
+ * Two-digit years are expanded with a pivot: years below the pivot are in the 1400s, the
+ * others in the 1300s. When a layout is ambiguous the year-first one wins, as in
+ * {@link JalCal#jalaliToGregorian(String)}.
+ * <p>
+ * Instances keep the detected layout and are not thread-safe; use one parser per column.
+ *
+ * @author sjb
+ */
+public class JalaliDateParser {
+
+    /**
+     * Default number of values sampled to detect a layout
+     */
+    public static final int DEFAULT_SAMPLE_SIZE = 16;
+
+    /**
+     * Default pivot for two-digit years: 00-49 become 1400-1449, 50-99 become 1350-1399
+     */
+    public static final int DEFAULT_PIVOT = 50;
+
+    /**
+     * The format of the time part of a layout
+     */
+    public enum TimeFormat {
+        NONE, HH_MM, HH_MM_SS, HHMMSS
+    }
+
+    private final int sampleSize;
+    private final int pivot;
+    private final int[] fields = new int[6];
+    private Layout layout;
+
+    /**
+     * Creates a parser with {@link #DEFAULT_SAMPLE_SIZE} and {@link #DEFAULT_PIVOT}
+     */
+    public JalaliDateParser() {
+        this(DEFAULT_SAMPLE_SIZE, DEFAULT_PIVOT);
+    }
+
+    /**
+     * Creates a parser
+     *
+     * @param sampleSize number of values sampled to detect a layout (must be >= 1)
+     * @param pivot      two-digit years below the pivot are in the 1400s, the others in the 1300s (0-100)
+     */
+    public JalaliDateParser(int sampleSize, int pivot) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("sampleSize must be positive");
+        }
+        if (pivot < 0 || pivot > 100) {
+            throw new IllegalArgumentException("pivot must be between 0 and 100");
+        }
+        this.sampleSize = sampleSize;
+        this.pivot = pivot;
+    }
+
+    /**
+     * Expands a two-digit Jalali year
+     *
+     * @param twoDigitYear the year of century (0-99)
+     * @param pivot        years below the pivot are in the 1400s, the others in the 1300s
+     * @return the four-digit year
+     */
+    public static int expandYear(int twoDigitYear, int pivot) {
+        return twoDigitYear < pivot ? 1400 + twoDigitYear : 1300 + twoDigitYear;
+    }
+
+    /**
+     * @return the locked layout, or null if no value has been parsed yet
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Detects and locks the layout from sample values, replacing any previous layout
+     *
+     * @param samples values of the column; at most the sample size is examined
+     * @return the detected layout
+     * @throws DateException if no supported layout matches any sample
+     */
+    public Layout sniff(List<String> samples) throws DateException {
+        return sniff(samples, 0, null);
+    }
+
+    /**
+     * Locks the layout that matches the most values of the window starting at {@code from}.
+     * Candidates are the current layout, if any, followed by the layouts of every value in the
+     * window; on a tie the earlier candidate wins, so the current layout is kept.
+     */
+    private Layout sniff(List<String> values, int from, Layout current) throws DateException {
+        int to = Math.min(values.size(), from + sampleSize);
+        List<Layout> candidates = new ArrayList<>(4);
+        if (current != null) {
+            candidates.add(current);
+        }
+        for (int i = from; i < to; i++) {
+            for (Layout candidate : candidates(values.get(i))) {
+                if (!candidates.contains(candidate)) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+        Layout best = null;
+        int bestScore = 0;
+        for (Layout candidate : candidates) {
+            int score = 0;
+            for (int i = from; i < to; i++) {
+                if (candidate.parse(values.get(i), pivot, fields)) {
+                    score++;
+                }
+            }
+            if (score > bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        if (best == null) {
+            throw new DateException();
+        }
+        layout = best;
+        return best;
+    }
+
+    /**
+     * Parses a single value into its Jalali fields. The first call, and any call whose value
+     * does not match the locked layout, detects the layout from this value alone.
+     *
+     * @param value the date string
+     * @param out   array of at least 6 elements receiving year, month, day, hour, minute, second
+     * @throws DateException if the value matches no supported layout
+     */
+    public void parseFields(String value, int[] out) throws DateException {
+        if (layout != null && layout.parse(value, pivot, out)) {
+            return;
+        }
+        sniff(List.of(value), 0, null);
+        if (!layout.parse(value, pivot, out)) {
+            throw new DateException();
+        }
+    }
+
+    /**
+     * Parses a single value to a Gregorian date in the default time zone
+     *
+     * @param value the date string
+     * @return the corresponding java.util.Date
+     * @throws DateException if the value matches no supported layout
+     */
+    public Date parse(String value) throws DateException {
+        parseFields(value, fields);
+        return toDate(fields);
+    }
+
+    /**
+     * Parses a column of values. The layout is detected from the first values; when a value does
+     * not match, the layout is detected again from that value and the ones following it. If the
+     * locked layout still fits those values best, the value is parsed with its own layout and the
+     * locked one is kept.
+     *
+     * @param values the date strings
+     * @return the corresponding dates, in the same order
+     * @throws DateException if a value matches no supported layout
+     */
+    public Date[] parseAll(List<String> values) throws DateException {
+        Date[] result = new Date[values.size()];
+        if (layout == null && !values.isEmpty()) {
+            sniff(values, 0, null);
+        }
+        for (int i = 0; i < result.length; i++) {
+            parseAt(values, i);
+            result[i] = toDate(fields);
+        }
+        return result;
+    }
+
+    /**
+     * Parses a single value to a packed Jalali date, ignoring any time part
+     *
+     * @param value the date string
+     * @return the packed date (see {@link JalaliDateColumn#pack(int, int, int)})
+     * @throws DateException if the value matches no supported layout
+     */
+    public int parsePacked(String value) throws DateException {
+        parseFields(value, fields);
+        return JalaliDateColumn.pack(fields[0], fields[1], fields[2]);
+    }
+
+    /**
+     * Parses a column of values into packed dates, ignoring any time part.
+     * Layout detection works as in {@link #parseAll(List)}.
+     *
+     * @param values the date strings
+     * @param column the column the packed dates are appended to
+     * @throws DateException if a value matches no supported layout
+     */
+    public void parseAll(List<String> values, JalaliDateColumn column) throws DateException {
+        if (layout == null && !values.isEmpty()) {
+            sniff(values, 0, null);
+        }
+        for (int i = 0; i < values.size(); i++) {
+            parseAt(values, i);
+            column.append(JalaliDateColumn.pack(fields[0], fields[1], fields[2]));
+        }
+    }
+
+    /**
+     * Parses the value at a position into {@link #fields}, detecting the layout again from
+     * that position if the value does not match
+     */
+    private void parseAt(List<String> values, int index) throws DateException {
+        String value = values.get(index);
+        if (layout.parse(value, pivot, fields)) {
+            return;
+        }
+        sniff(values, index, layout);
+        if (layout.parse(value, pivot, fields)) {
+            return;
+        }
+        // an isolated outlier: parse it with its own layout and keep the locked one
+        for (Layout candidate : candidates(value)) {
+            if (candidate.parse(value, pivot, fields)) {
+                return;
+            }
+        }
+        throw new DateException();
+    }
+
+    private static Date toDate(int[] f) throws DateException {
+        return JalCal.jalaliToGregorian(f[0], f[1], f[2], f[3], f[4], f[5]);
+    }
+
+    /**
+     * Lists the layouts that a value could be written in, most preferred first
+     */
+    static List<Layout> candidates(String value) {
+        List<Layout> result = new ArrayList<>(2);
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int dateEnd = start;
+        while (dateEnd < end && value.charAt(dateEnd) > ' ') {
+            dateEnd++;
+        }
+        TimeFormat time = TimeFormat.NONE;
+        if (dateEnd < end) {
+            int timeStart = dateEnd;
+            while (value.charAt(timeStart) <= ' ') {
+                timeStart++;
+            }
+            int colons = 0;
+            for (int i = timeStart; i < end; i++) {
+                if (value.charAt(i) == ':') {
+                    colons++;
+                }
+            }
+            time = colons == 2 ? TimeFormat.HH_MM_SS : colons == 1 ? TimeFormat.HH_MM : TimeFormat.HHMMSS;
+        }
+
+        char separator = 0;
+        int firstLength = 0;
+        int lastLength = 0;
+        for (int i = start; i < dateEnd; i++) {
+            char c = value.charAt(i);
+            if (c == '/' || c == '-' || c == '.') {
+                if (separator == 0) {
+                    separator = c;
+                    firstLength = i - start;
+                }
+                lastLength = dateEnd - i - 1;
+            }
+        }
+        if (separator == 0) {
+            int digits = dateEnd - start;
+            if (digits == 8) {
+                result.add(new Layout((char) 0, true, 4, time));
+                result.add(new Layout((char) 0, false, 4, time));
+            } else if (digits == 6) {
+                result.add(new Layout((char) 0, true, 2, time));
+                result.add(new Layout((char) 0, false, 2, time));
+            }
+        } else if (firstLength == 4) {
+            result.add(new Layout(separator, true, 4, time));
+        } else if (lastLength == 4) {
+            result.add(new Layout(separator, false, 4, time));
+        } else if (firstLength <= 2 && lastLength <= 2) {
+            result.add(new Layout(separator, true, 2, time));
+            result.add(new Layout(separator, false, 2, time));
+        }
+        return result;
+    }
+
+    /**
+     * Layout - a detected string layout together with its parsing fast path
+     */
+    public static final class Layout {
+
+        private final char separator;
+        private final boolean yearFirst;
+        private final int yearDigits;
+        private final TimeFormat time;
+
+        Layout(char separator, boolean yearFirst, int yearDigits, TimeFormat time) {
+            this.separator = separator;
+            this.yearFirst = yearFirst;
+            this.yearDigits = yearDigits;
+            this.time = time;
+        }
+
+        /**
+         * @return the date separator, or 0 for the compact forms
+         */
+        public char getSeparator() {
+            return separator;
+        }
+
+        /**
+         * @return true if the year comes first, false if the day comes first
+         */
+        public boolean isYearFirst() {
+            return yearFirst;
+        }
+
+        /**
+         * @return 2 or 4
+         */
+        public int getYearDigits() {
+            return yearDigits;
+        }
+
+        /**
+         * @return the format of the time part
+         */
+        public TimeFormat getTimeFormat() {
+            return time;
+        }
+
+        /**
+         * Parses a value with this layout
+         *
+         * @return false if the value does not match this layout or is not a valid date and time
+         */
+        boolean parse(String s, int pivot, int[] out) {
+            int end = s.length();
+            int pos = 0;
+            while (pos < end && s.charAt(pos) <= ' ') {
+                pos++;
+            }
+            while (end > pos && s.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            int year;
+            int month;
+            int day;
+            if (separator == 0) {
+                if (end - pos < yearDigits + 4) {
+                    return false;
+                }
+                int first = fixedDigits(s, pos, yearFirst ? yearDigits : 2);
+                month = fixedDigits(s, pos + (yearFirst ? yearDigits : 2), 2);
+                int last = fixedDigits(s, pos + (yearFirst ? yearDigits : 2) + 2, yearFirst ? 2 : yearDigits);
+                year = yearFirst ? first : last;
+                day = yearFirst ? last : first;
+                pos += yearDigits + 4;
+            } else {
+                int firstEnd = digitsEnd(s, pos, end);
+                if (firstEnd >= end || s.charAt(firstEnd) != separator) {
+                    return false;
+                }
+                int monthEnd = digitsEnd(s, firstEnd + 1, end);
+                if (monthEnd >= end || s.charAt(monthEnd) != separator) {
+                    return false;
+                }
+                int lastEnd = digitsEnd(s, monthEnd + 1, end);
+                int firstLength = firstEnd - pos;
+                int monthLength = monthEnd - firstEnd - 1;
+                int lastLength = lastEnd - monthEnd - 1;
+                int dayLength = yearFirst ? lastLength : firstLength;
+                if ((yearFirst ? firstLength : lastLength) != yearDigits
+                        || monthLength < 1 || monthLength > 2 || dayLength < 1 || dayLength > 2) {
+                    return false;
+                }
+                int first = fixedDigits(s, pos, firstLength);
+                month = fixedDigits(s, firstEnd + 1, monthLength);
+                int last = fixedDigits(s, monthEnd + 1, lastLength);
+                year = yearFirst ? first : last;
+                day = yearFirst ? last : first;
+                pos = lastEnd;
+            }
+            if (year < 0 || month < 1 || month > 12 || day < 1) {
+                return false;
+            }
+            if (yearDigits == 2) {
+                year = expandYear(year, pivot);
+            }
+            if (year < 1000 || day > JalCalUtil.persianMonthLength(year, month)) {
+                return false;
+            }
+
+            int hour = 0;
+            int minute = 0;
+            int second = 0;
+            if (time == TimeFormat.NONE) {
+                if (pos != end) {
+                    return false;
+                }
+            } else {
+                int timeStart = pos;
+                while (pos < end && s.charAt(pos) <= ' ') {
+                    pos++;
+                }
+                if (pos == timeStart) {
+                    return false;
+                }
+                if (time == TimeFormat.HHMMSS) {
+                    if (end - pos != 6) {
+                        return false;
+                    }
+                    hour = fixedDigits(s, pos, 2);
+                    minute = fixedDigits(s, pos + 2, 2);
+                    second = fixedDigits(s, pos + 4, 2);
+                } else {
+                    int hourEnd = digitsEnd(s, pos, end);
+                    if (hourEnd - pos < 1 || hourEnd - pos > 2 || hourEnd + 3 > end || s.charAt(hourEnd) != ':') {
+                        return false;
+                    }
+                    hour = fixedDigits(s, pos, hourEnd - pos);
+                    minute = fixedDigits(s, hourEnd + 1, 2);
+                    pos = hourEnd + 3;
+                    if (time == TimeFormat.HH_MM_SS) {
+                        if (pos + 3 != end || s.charAt(pos) != ':') {
+                            return false;
+                        }
+                        second = fixedDigits(s, pos + 1, 2);
+                    } else if (pos != end) {
+                        return false;
+                    }
+                }
+                if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                    return false;
+                }
+            }
+            out[0] = year;
+            out[1] = month;
+            out[2] = day;
+            out[3] = hour;
+            out[4] = minute;
+            out[5] = second;
+            return true;
+        }
+
+        /**
+         * Reads {@code count} ASCII digits starting at {@code from}
+         *
+         * @return the value, or -1 if a character is not a digit or the count is zero
+         */
+        private static int fixedDigits(String s, int from, int count) {
+            if (count <= 0 || from + count > s.length()) {
+                return -1;
+            }
+            int value = 0;
+            for (int i = from; i < from + count; i++) {
+                int digit = s.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        private static int digitsEnd(String s, int from, int end) {
+            int i = from;
+            while (i < end && i - from < 5 && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Layout other)) {
+                return false;
+            }
+            return separator == other.separator && yearFirst == other.yearFirst
+                    && yearDigits == other.yearDigits && time == other.time;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((separator * 31 + (yearFirst ? 1 : 0)) * 31 + yearDigits) * 31 + time.ordinal();
+        }
+
+        @Override
+        public String toString() {
+            String sep = separator == 0 ? "" : String.valueOf(separator);
+            String year = yearDigits == 4 ? "yyyy" : "yy";
+            String date = yearFirst ? year + sep + "MM" + sep + "dd" : "dd" + sep + "MM" + sep + year;
+            return switch (time) {
+                case NONE -> date;
+                case HH_MM -> date + " HH:mm";
+                case HH_MM_SS -> date + " HH:mm:ss";
+                case HHMMSS -> date + " HHmmss";
+            };
+        }
+    }
+}
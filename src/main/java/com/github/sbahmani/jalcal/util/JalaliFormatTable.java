@@ -0,0 +1,298 @@
+package com.github.sbahmani.jalcal.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * JalaliFormatTable - precomputed formatted forms of every day in a window of Jalali years.
+ * For each {@link Format} the table holds one shared String per day and one contiguous block of
+ * pre-encoded UTF-8 (ASCII) bytes, so formatting a day in the window is an array index by fixed
+ * day and network writers can copy the bytes out directly. Days outside the window are formatted
+ * by normal conversion.
+ * <p>
+ * The arrays of a format are built on first use. A table is opt-in: once passed to
+ * {@link #install(JalaliFormatTable)} it is also used by {@link JalCal#gregorianToJalaliDate(Date, boolean)},
+ * {@link JalaliDateHelper#convertToJalali4DigitSlashDateFormat(Date)} and
+ * {@link JalaliDateHelper#convertToJalaliDateFormat(Date)}. Instances are thread-safe.
+ *
+ * @author sjb
+ */
+public final class JalaliFormatTable {
+
+    /**
+     * The canonical formats held by the table
+     */
+    public enum Format {
+        YYYY_MM_DD(10), DD_MM_YYYY(10), YYMMDD(6), YYYYMMDD(8);
+
+        private final int width;
+
+        Format(int width) {
+            this.width = width;
+        }
+
+        /**
+         * @return the number of characters, and of UTF-8 bytes, of a formatted day in the window
+         */
+        public int getWidth() {
+            return width;
+        }
+    }
+
+    private static volatile JalaliFormatTable installed;
+
+    private final int fromYear;
+    private final int toYear;
+    private final long firstDay;
+    private final int days;
+    private final AtomicReferenceArray<String[]> stringTables = new AtomicReferenceArray<>(Format.values().length);
+    private final AtomicReferenceArray<byte[]> byteTables = new AtomicReferenceArray<>(Format.values().length);
+
+    /**
+     * Creates a table for a window of Jalali years; no day is formatted until a format is first used
+     *
+     * @param fromYear first Jalali year of the window (1000-9999)
+     * @param toYear   last Jalali year of the window, inclusive (fromYear-9999)
+     */
+    public JalaliFormatTable(int fromYear, int toYear) {
+        if (fromYear < 1000 || toYear > 9999 || toYear < fromYear) {
+            throw new IllegalArgumentException("window must be within 1000-9999");
+        }
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.firstDay = JalCalUtil.fixedFromPersianFast(fromYear, 1, 1);
+        this.days = (int) (JalCalUtil.fixedFromPersianFast(toYear + 1, 1, 1) - firstDay);
+    }
+
+    /**
+     * Makes a table the one used by the existing formatting methods
+     *
+     * @param table the table, or null to go back to normal conversion
+     */
+    public static void install(JalaliFormatTable table) {
+        installed = table;
+    }
+
+    /**
+     * @return the installed table, or null if none is installed
+     */
+    public static JalaliFormatTable getInstalled() {
+        return installed;
+    }
+
+    /**
+     * Builds the arrays of every format now rather than on first use
+     *
+     * @return this table
+     */
+    public JalaliFormatTable buildAll() {
+        for (Format format : Format.values()) {
+            stringTable(format);
+        }
+        return this;
+    }
+
+    /**
+     * @return the first Jalali year of the window
+     */
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    /**
+     * @return the last Jalali year of the window, inclusive
+     */
+    public int getToYear() {
+        return toYear;
+    }
+
+    /**
+     * @param fixedDay the fixed day number (see {@link JalCalUtil#fixedFromGregorian(long, int, int)})
+     * @return true if the day lies in the window
+     */
+    public boolean contains(long fixedDay) {
+        return fixedDay >= firstDay && fixedDay - firstDay < days;
+    }
+
+    /**
+     * Formats a day
+     *
+     * @param fixedDay the fixed day number
+     * @param format   the format
+     * @return the shared string for days in the window, a new string with the year unpadded as in
+     * {@link JalCal#gregorianToJalaliDate(Date, boolean)} otherwise
+     */
+    public String format(long fixedDay, Format format) {
+        if (contains(fixedDay)) {
+            return stringTable(format)[(int) (fixedDay - firstDay)];
+        }
+        long[] persian = JalCalUtil.persianFastFromFixed(fixedDay);
+        long year = persian[0];
+        String month = (persian[1] < 10 ? "0" : "") + persian[1];
+        String day = (persian[2] < 10 ? "0" : "") + persian[2];
+        return switch (format) {
+            case YYYY_MM_DD -> year + "/" + month + "/" + day;
+            case DD_MM_YYYY -> day + "/" + month + "/" + year;
+            case YYMMDD -> (Math.floorMod(year, 100) < 10 ? "0" : "") + Math.floorMod(year, 100) + month + day;
+            case YYYYMMDD -> year + month + day;
+        };
+    }
+
+    /**
+     * Formats a date in the default time zone
+     *
+     * @param date   the Gregorian date
+     * @param format the format
+     * @return the formatted Jalali date
+     */
+    public String format(Date date, Format format) {
+        return format(JalCal.fixedDayOf(date), format);
+    }
+
+    /**
+     * Copies the UTF-8 bytes of a formatted day into an array
+     *
+     * @param fixedDay the fixed day number
+     * @param format   the format
+     * @param dst      the destination array
+     * @param offset   the position in the destination
+     * @return the number of bytes written, {@link Format#getWidth()} for days in the window
+     */
+    public int writeTo(long fixedDay, Format format, byte[] dst, int offset) {
+        if (contains(fixedDay)) {
+            System.arraycopy(byteTable(format), (int) (fixedDay - firstDay) * format.width, dst, offset, format.width);
+            return format.width;
+        }
+        String text = format(fixedDay, format);
+        for (int i = 0; i < text.length(); i++) {
+            dst[offset + i] = (byte) text.charAt(i);
+        }
+        return text.length();
+    }
+
+    /**
+     * Returns a read-only view of the UTF-8 bytes of a formatted day, without copying for days in the window
+     *
+     * @param fixedDay the fixed day number
+     * @param format   the format
+     * @return a buffer of {@link Format#getWidth()} bytes for days in the window
+     */
+    public ByteBuffer bytes(long fixedDay, Format format) {
+        if (contains(fixedDay)) {
+            return ByteBuffer.wrap(byteTable(format), (int) (fixedDay - firstDay) * format.width, format.width)
+                    .slice().asReadOnlyBuffer();
+        }
+        return ByteBuffer.wrap(format(fixedDay, format).getBytes(StandardCharsets.US_ASCII)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Estimates the heap used by the arrays built so far, assuming compressed references
+     * and compact (Latin-1) strings
+     *
+     * @return the estimated footprint in bytes
+     */
+    public long footprintBytes() {
+        long total = 0;
+        for (Format format : Format.values()) {
+            if (stringTables.get(format.ordinal()) != null) {
+                // String object plus its byte[] value, each with a 12-16 byte header, aligned to 8
+                long perString = 24 + align(16 + format.width);
+                total += align(16 + 4L * days) + days * perString;
+                total += align(16 + (long) days * format.width);
+            }
+        }
+        return total;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private String[] stringTable(Format format) {
+        String[] texts = stringTables.get(format.ordinal());
+        if (texts == null) {
+            build(format);
+            texts = stringTables.get(format.ordinal());
+        }
+        return texts;
+    }
+
+    private byte[] byteTable(Format format) {
+        byte[] block = byteTables.get(format.ordinal());
+        if (block == null) {
+            build(format);
+            block = byteTables.get(format.ordinal());
+        }
+        return block;
+    }
+
+    private synchronized void build(Format format) {
+        int index = format.ordinal();
+        if (stringTables.get(index) != null) {
+            return;
+        }
+        int width = format.width;
+        String[] texts = new String[days];
+        byte[] block = new byte[days * width];
+        char[] chars = new char[width];
+        int year = fromYear;
+        int month = 1;
+        int day = 1;
+        int monthLength = JalCalUtil.persianMonthLength(year, month);
+        for (int i = 0; i < days; i++) {
+            write(chars, 0, format, year, month, day);
+            texts[i] = new String(chars);
+            for (int c = 0; c < width; c++) {
+                block[i * width + c] = (byte) chars[c];
+            }
+            if (++day > monthLength) {
+                day = 1;
+                if (++month > 12) {
+                    month = 1;
+                    year++;
+                }
+                monthLength = JalCalUtil.persianMonthLength(year, month);
+            }
+        }
+        byteTables.set(index, block);
+        stringTables.set(index, texts);
+    }
+
+    private static void write(char[] out, int offset, Format format, int year, int month, int day) {
+        switch (format) {
+            case YYYY_MM_DD -> {
+                writeDigits(out, offset, year, 4);
+                out[offset + 4] = '/';
+                writeDigits(out, offset + 5, month, 2);
+                out[offset + 7] = '/';
+                writeDigits(out, offset + 8, day, 2);
+            }
+            case DD_MM_YYYY -> {
+                writeDigits(out, offset, day, 2);
+                out[offset + 2] = '/';
+                writeDigits(out, offset + 3, month, 2);
+                out[offset + 5] = '/';
+                writeDigits(out, offset + 6, year, 4);
+            }
+            case YYMMDD -> {
+                writeDigits(out, offset, year % 100, 2);
+                writeDigits(out, offset + 2, month, 2);
+                writeDigits(out, offset + 4, day, 2);
+            }
+            case YYYYMMDD -> {
+                writeDigits(out, offset, year, 4);
+                writeDigits(out, offset + 4, month, 2);
+                writeDigits(out, offset + 6, day, 2);
+            }
+        }
+    }
+
+    private static void writeDigits(char[] out, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.sbahmani.jalcal.util;
+
+/**
+ * JalaliInterval - an immutable half-open range of epoch milliseconds {@code [start, end)}
+ * produced by {@link JalaliIntervalResolver}. Suitable for pushing down to range queries
+ * such as {@code ts >= start AND ts < end}.
+ *
+ * @author sjb
+ */
+public final class JalaliInterval {
+
+    private final long startMillis;
+    private final long endMillis;
+
+    /**
+     * Creates an interval
+     *
+     * @param startMillis inclusive start in epoch milliseconds
+     * @param endMillis   exclusive end in epoch milliseconds
+     */
+    public JalaliInterval(long startMillis, long endMillis) {
+        if (endMillis < startMillis) {
+            throw new IllegalArgumentException("end is before start");
+        }
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+    }
+
+    /**
+     * @return inclusive start in epoch milliseconds
+     */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /**
+     * @return exclusive end in epoch milliseconds
+     */
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    /**
+     * Checks whether an instant lies inside this interval
+     *
+     * @param epochMillis the instant in epoch milliseconds
+     * @return true if {@code start <= epochMillis < end}
+     */
+    public boolean contains(long epochMillis) {
+        return epochMillis >= startMillis && epochMillis < endMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JalaliInterval other)) {
+            return false;
+        }
+        return startMillis == other.startMillis && endMillis == other.endMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(startMillis) * 31 + Long.hashCode(endMillis);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + startMillis + ", " + endMillis + ")";
+    }
+}
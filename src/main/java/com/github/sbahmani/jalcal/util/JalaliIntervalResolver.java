@@ -0,0 +1,169 @@
+package com.github.sbahmani.jalcal.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * JalaliIntervalResolver - resolves Jalali periods to half-open epoch-millisecond intervals
+ * in a time zone. Each boundary is the start of the Jalali day in that zone, so DST transitions
+ * at midnight are handled the same way as {@link LocalDate#atStartOfDay(ZoneId)}.
+ * <p>
+ * Resolved intervals are kept in a bounded, access-ordered LRU cache keyed on
+ * (period, count, zone). Instances are thread-safe.
+ *
+ * @author sjb
+ */
+public class JalaliIntervalResolver {
+
+    /**
+     * Default number of cached intervals
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private final Map<Key, JalaliInterval> cache;
+
+    /**
+     * Creates a resolver with a cache of {@link #DEFAULT_CACHE_SIZE} entries
+     */
+    public JalaliIntervalResolver() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a resolver with a cache of the given size
+     *
+     * @param maxEntries maximum number of cached intervals (0 disables caching)
+     */
+    public JalaliIntervalResolver(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("maxEntries must not be negative");
+        }
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, JalaliInterval> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Resolves a single period
+     *
+     * @param period the Jalali period
+     * @param zone   the time zone in which days start
+     * @return the interval {@code [start of first day, start of day after last day)}
+     */
+    public JalaliInterval resolve(JalaliPeriod period, ZoneId zone) {
+        return resolve(period, 1, zone);
+    }
+
+    /**
+     * Resolves {@code count} consecutive periods starting at {@code first}
+     *
+     * @param first the first period of the range
+     * @param count number of periods (must be >= 1)
+     * @param zone  the time zone in which days start
+     * @return the interval covering all periods
+     * @throws IllegalArgumentException if count is not positive or the range ends after {@link JalaliPeriod#MAX_YEAR}
+     */
+    public JalaliInterval resolve(JalaliPeriod first, int count, ZoneId zone) {
+        Objects.requireNonNull(first, "first");
+        Objects.requireNonNull(zone, "zone");
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        Key key = new Key(first, count, zone);
+        synchronized (cache) {
+            JalaliInterval cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long endDay = count == 1 ? first.endDay() : first.plus(count - 1).endDay();
+        JalaliInterval interval = new JalaliInterval(JalCalUtil.startOfDayMillis(first.firstDay(), zone),
+                JalCalUtil.startOfDayMillis(endDay, zone));
+        synchronized (cache) {
+            cache.put(key, interval);
+        }
+        return interval;
+    }
+
+    /**
+     * Resolves periods relative to the one containing {@code nowMillis}.
+     * An offset of 0 is the current period; "last 3 months" (excluding the current one)
+     * is {@code resolveRelative(Unit.MONTH, -3, 3, now, zone)}, and "this month so far
+     * plus the 2 before it" is {@code resolveRelative(Unit.MONTH, -2, 3, now, zone)}.
+     *
+     * @param unit      granularity of the periods
+     * @param offset    offset of the first period from the current one
+     * @param count     number of periods (must be >= 1)
+     * @param nowMillis the reference instant in epoch milliseconds
+     * @param zone      the time zone in which days start
+     * @return the interval covering all periods
+     * @throws IllegalArgumentException if count is not positive or the periods fall outside years 1 to
+     *                                  {@link JalaliPeriod#MAX_YEAR}
+     */
+    public JalaliInterval resolveRelative(JalaliPeriod.Unit unit, int offset, int count, long nowMillis, ZoneId zone) {
+        JalaliPeriod current = JalaliPeriod.containing(unit, fixedDayOf(nowMillis, zone));
+        return resolve(current.plus(offset), count, zone);
+    }
+
+    /**
+     * Drops all cached intervals
+     */
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return the number of cached intervals
+     */
+    public int cacheSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Returns the fixed day number of the local date of an instant in a zone
+     *
+     * @param epochMillis the instant in epoch milliseconds
+     * @param zone        the time zone
+     * @return the fixed day number
+     */
+    static long fixedDayOf(long epochMillis, ZoneId zone) {
+        long offsetSeconds = zone.getRules().getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds();
+        return Math.floorDiv(epochMillis + offsetSeconds * 1000L, 86_400_000L) + JalCalUtil.EPOCH_FIXED_DAY;
+    }
+
+    private static final class Key {
+        private final JalaliPeriod period;
+        private final int count;
+        private final ZoneId zone;
+
+        Key(JalaliPeriod period, int count, ZoneId zone) {
+            this.period = period;
+            this.count = count;
+            this.zone = zone;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return count == other.count && period.equals(other.period) && zone.equals(other.zone);
+        }
+
+        @Override
+        public int hashCode() {
+            return (period.hashCode() * 31 + count) * 31 + zone.hashCode();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.github.sbahmani.jalcal.util;
+
+/**
+ * JalaliPeriod - an immutable calendar period in the Jalali (Persian) calendar.
+ * A period is a year, a quarter, a month, a week or a single day, and always covers
+ * a whole number of days. Periods are resolved to epoch intervals by {@link JalaliIntervalResolver}.
+ * <p>
+ * Weeks start on Saturday. Week 1 of a year is the week that contains 1 Farvardin, so it may
+ * begin in the last days of the previous year; every week belongs to exactly one year.
+ *
+ * @author sjb
+ */
+public final class JalaliPeriod {
+
+    /**
+     * The granularity of a period
+     */
+    public enum Unit {
+        YEAR, QUARTER, MONTH, WEEK, DAY
+    }
+
+    /**
+     * The largest supported Jalali year
+     */
+    public static final int MAX_YEAR = 9999;
+
+    /**
+     * Fixed day number of a known Saturday, used as the reference for week arithmetic
+     */
+    private static final long SATURDAY = 6L;
+
+    private final Unit unit;
+    private final int year;
+    private final int index;
+    private final int day;
+
+    private JalaliPeriod(Unit unit, int year, int index, int day) {
+        this.unit = unit;
+        this.year = year;
+        this.index = index;
+        this.day = day;
+    }
+
+    /**
+     * Creates a period covering a whole Jalali year
+     *
+     * @param year the Jalali year (1 to {@link #MAX_YEAR})
+     * @return the year period
+     * @throws DateException if the year is out of range
+     */
+    public static JalaliPeriod year(int year) throws DateException {
+        checkYear(year);
+        return new JalaliPeriod(Unit.YEAR, year, 1, 1);
+    }
+
+    /**
+     * Creates a period covering a Jalali quarter; quarter 1 is Farvardin to Khordad
+     *
+     * @param year    the Jalali year (1 to {@link #MAX_YEAR})
+     * @param quarter the quarter (1-4)
+     * @return the quarter period
+     * @throws DateException if the year or quarter is out of range
+     */
+    public static JalaliPeriod quarter(int year, int quarter) throws DateException {
+        checkYear(year);
+        if (quarter < 1 || quarter > 4) {
+            throw new DateException();
+        }
+        return new JalaliPeriod(Unit.QUARTER, year, quarter, 1);
+    }
+
+    /**
+     * Creates a period covering a Jalali month
+     *
+     * @param year  the Jalali year (1 to {@link #MAX_YEAR})
+     * @param month the month (1-12, not zero based)
+     * @return the month period
+     * @throws DateException if the year or month is out of range
+     */
+    public static JalaliPeriod month(int year, int month) throws DateException {
+        checkYear(year);
+        if (month < 1 || month > 12) {
+            throw new DateException();
+        }
+        return new JalaliPeriod(Unit.MONTH, year, month, 1);
+    }
+
+    /**
+     * Creates a period covering a Saturday-to-Friday week of a Jalali year
+     *
+     * @param year the Jalali year (1 to {@link #MAX_YEAR})
+     * @param week the week of year (1 to {@link #weeksInYear(int)})
+     * @return the week period
+     * @throws DateException if the year or week is out of range
+     */
+    public static JalaliPeriod week(int year, int week) throws DateException {
+        checkYear(year);
+        if (week < 1 || week > weeksInYear(year)) {
+            throw new DateException();
+        }
+        return new JalaliPeriod(Unit.WEEK, year, week, 1);
+    }
+
+    /**
+     * Creates a period covering a single Jalali day
+     *
+     * @param year  the Jalali year (1 to {@link #MAX_YEAR})
+     * @param month the month (1-12, not zero based)
+     * @param day   the day of month
+     * @return the day period
+     * @throws DateException if the date does not exist
+     */
+    public static JalaliPeriod day(int year, int month, int day) throws DateException {
+        checkYear(year);
+        if (month < 1 || month > 12 || day < 1 || day > JalCalUtil.persianMonthLength(year, month)) {
+            throw new DateException();
+        }
+        return new JalaliPeriod(Unit.DAY, year, month, day);
+    }
+
+    /**
+     * Returns the period of the given unit that contains a fixed day number
+     *
+     * @param unit     the granularity of the returned period
+     * @param fixedDay the fixed day number (see {@link JalCalUtil#fixedFromGregorian(long, int, int)})
+     * @return the containing period
+     * @throws IllegalArgumentException if the period falls outside years 1 to {@link #MAX_YEAR}
+     */
+    public static JalaliPeriod containing(Unit unit, long fixedDay) {
+        if (unit == Unit.WEEK) {
+            long saturday = saturdayOnOrBefore(fixedDay);
+            int weekYear = rangedYear(JalCalUtil.persianFastFromFixed(saturday + 6)[0]);
+            int week = (int) ((saturday - firstWeekStart(weekYear)) / 7) + 1;
+            return new JalaliPeriod(Unit.WEEK, weekYear, week, 1);
+        }
+        long[] persian = JalCalUtil.persianFastFromFixed(fixedDay);
+        int y = rangedYear(persian[0]);
+        int m = (int) persian[1];
+        return switch (unit) {
+            case YEAR -> new JalaliPeriod(Unit.YEAR, y, 1, 1);
+            case QUARTER -> new JalaliPeriod(Unit.QUARTER, y, (m - 1) / 3 + 1, 1);
+            case MONTH -> new JalaliPeriod(Unit.MONTH, y, m, 1);
+            default -> new JalaliPeriod(Unit.DAY, y, m, (int) persian[2]);
+        };
+    }
+
+    /**
+     * Returns the number of Saturday-to-Friday weeks assigned to a Jalali year
+     *
+     * @param year the Jalali year
+     * @return 52 or 53
+     */
+    public static int weeksInYear(int year) {
+        return (int) ((firstWeekStart(year + 1) - firstWeekStart(year)) / 7);
+    }
+
+    /**
+     * Returns the period that lies {@code amount} units after this one
+     *
+     * @param amount number of units to move, may be negative
+     * @return the shifted period of the same unit
+     * @throws IllegalArgumentException if the shifted period falls outside years 1 to {@link #MAX_YEAR}
+     */
+    public JalaliPeriod plus(int amount) {
+        if (amount == 0) {
+            return this;
+        }
+        return switch (unit) {
+            case YEAR -> new JalaliPeriod(Unit.YEAR, rangedYear((long) year + amount), 1, 1);
+            case QUARTER -> {
+                long q = year * 4L + (index - 1) + amount;
+                yield new JalaliPeriod(Unit.QUARTER, rangedYear(Math.floorDiv(q, 4)), Math.floorMod(q, 4) + 1, 1);
+            }
+            case MONTH -> {
+                long m = year * 12L + (index - 1) + amount;
+                yield new JalaliPeriod(Unit.MONTH, rangedYear(Math.floorDiv(m, 12)), Math.floorMod(m, 12) + 1, 1);
+            }
+            case WEEK -> containing(Unit.WEEK, firstDay() + 7L * amount);
+            default -> containing(Unit.DAY, firstDay() + amount);
+        };
+    }
+
+    /**
+     * Returns the fixed day number of the first day of this period
+     *
+     * @return the first fixed day (inclusive)
+     */
+    public long firstDay() {
+        return switch (unit) {
+            case YEAR -> JalCalUtil.fixedFromPersianFast(year, 1, 1);
+            case QUARTER -> JalCalUtil.fixedFromPersianFast(year, (index - 1) * 3 + 1, 1);
+            case MONTH -> JalCalUtil.fixedFromPersianFast(year, index, 1);
+            case WEEK -> firstWeekStart(year) + 7L * (index - 1);
+            default -> JalCalUtil.fixedFromPersianFast(year, index, day);
+        };
+    }
+
+    /**
+     * Returns the fixed day number of the day after the last day of this period
+     *
+     * @return the end fixed day (exclusive)
+     */
+    public long endDay() {
+        return switch (unit) {
+            case YEAR -> JalCalUtil.fixedFromPersianFast(year + 1, 1, 1);
+            case QUARTER -> JalCalUtil.fixedFromPersianFast(year, index * 3, 1)
+                    + JalCalUtil.persianMonthLength(year, index * 3);
+            case MONTH -> JalCalUtil.fixedFromPersianFast(year, index, 1) + JalCalUtil.persianMonthLength(year, index);
+            case WEEK -> firstDay() + 7;
+            default -> firstDay() + 1;
+        };
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * @return the quarter, month or week number within the year; for a day period the month
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the day of month for a day period, otherwise 1
+     */
+    public int getDay() {
+        return day;
+    }
+
+    private static void checkYear(int year) throws DateException {
+        if (year < 1 || year > MAX_YEAR) {
+            throw new DateException();
+        }
+    }
+
+    private static int rangedYear(long year) {
+        if (year < 1 || year > MAX_YEAR) {
+            throw new IllegalArgumentException("period is out of range");
+        }
+        return (int) year;
+    }
+
+    private static long saturdayOnOrBefore(long fixedDay) {
+        return fixedDay - Math.floorMod(fixedDay - SATURDAY, 7);
+    }
+
+    private static long firstWeekStart(int year) {
+        return saturdayOnOrBefore(JalCalUtil.fixedFromPersianFast(year, 1, 1));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JalaliPeriod other)) {
+            return false;
+        }
+        return unit == other.unit && year == other.year && index == other.index && day == other.day;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((unit.ordinal() * 31 + year) * 31 + index) * 32 + day;
+    }
+
+    @Override
+    public String toString() {
+        return switch (unit) {
+            case YEAR -> String.valueOf(year);
+            case QUARTER -> year + "-Q" + index;
+            case MONTH -> year + "/" + (index < 10 ? "0" : "") + index;
+            case WEEK -> year + "-W" + (index < 10 ? "0" : "") + index;
+            default -> year + "/" + (index < 10 ? "0" : "") + index + "/" + (day < 10 ? "0" : "") + day;
+        };
+    }
+}
@@ -0,0 +1,342 @@
+package com.github.sbahmani.jalcal.util;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * JalaliTextFormat - parses and formats textual Jalali dates such as "۱۴ مهر ۱۴۰۲",
+ * "شنبه ۴ فروردین ۱۴۰۳" or "14 Mehr 1402".
+ * Month and weekday names in Persian script and in common transliterations are matched in a
+ * single pass through a trie built once from the name tables; a Persian month name may be followed
+ * by "ماه", as in "۱۴ مهرماه ۱۴۰۲" or "۱۴ مهر ماه ۱۴۰۲". Matching ignores ZWNJ, Latin case,
+ * and the Arabic forms of yeh and kaf that OCR often produces. Digits may be Persian,
+ * Arabic-Indic or ASCII. A leading weekday is optional and, since scanned documents often get it
+ * wrong, is recognised and skipped rather than checked against the date.
+ * Results are the same as those of the numeric parsers: a packed date as in
+ * {@link JalaliDateColumn#pack(int, int, int)} or a {@link Date} as in
+ * {@link JalCal#jalaliToGregorian(int, int, int, int, int, int)}.
+ *
+ * @author sjb
+ */
+public final class JalaliTextFormat {
+
+    private JalaliTextFormat() {
+        throw new UnsupportedOperationException("Utility class should not be instantiated");
+    }
+
+    /**
+     * Persian month names indexed by month (1-12)
+     */
+    private static final String[] PERSIAN_MONTHS = {"",
+            "فروردین", "اردیبهشت", "خرداد", "تیر", "مرداد", "شهریور",
+            "مهر", "آبان", "آذر", "دی", "بهمن", "اسفند"};
+
+    /**
+     * Transliterated month names indexed by month (1-12)
+     */
+    private static final String[] LATIN_MONTHS = {"",
+            "Farvardin", "Ordibehesht", "Khordad", "Tir", "Mordad", "Shahrivar",
+            "Mehr", "Aban", "Azar", "Dey", "Bahman", "Esfand"};
+
+    /**
+     * Persian weekday names indexed like {@link java.util.Calendar#DAY_OF_WEEK} minus one, Sunday first
+     */
+    private static final String[] PERSIAN_WEEKDAYS = {
+            "یکشنبه", "دوشنبه", "سه‌شنبه", "چهارشنبه", "پنجشنبه", "جمعه", "شنبه"};
+
+    /**
+     * Transliterated weekday names, Sunday first
+     */
+    private static final String[] LATIN_WEEKDAYS = {
+            "Yekshanbe", "Doshanbe", "Seshanbe", "Chaharshanbe", "Panjshanbe", "Jome", "Shanbe"};
+
+    /**
+     * Trie values at or above this mark a weekday ({@code WEEKDAY + dayOfWeek}), below it a month
+     */
+    private static final int WEEKDAY = 100;
+
+    private static final char ZWNJ = '\u200C';
+
+    private static final Node NAMES = new Node();
+
+    static {
+        for (int month = 1; month <= 12; month++) {
+            insertPersianMonth(PERSIAN_MONTHS[month], month);
+            NAMES.insert(LATIN_MONTHS[month], month);
+        }
+        insertPersianMonth("امرداد", 5);
+        NAMES.insert("Ardibehesht", 2);
+        NAMES.insert("Amordad", 5);
+        NAMES.insert("Sharivar", 6);
+        NAMES.insert("Dei", 10);
+        NAMES.insert("Esfend", 12);
+        for (int dow = 0; dow < 7; dow++) {
+            NAMES.insert(PERSIAN_WEEKDAYS[dow], WEEKDAY + dow);
+            NAMES.insert(LATIN_WEEKDAYS[dow], WEEKDAY + dow);
+            NAMES.insert(LATIN_WEEKDAYS[dow] + "h", WEEKDAY + dow);
+        }
+        NAMES.insert("سه شنبه", WEEKDAY + 2);
+        NAMES.insert("پنج شنبه", WEEKDAY + 4);
+        NAMES.insert("چهار شنبه", WEEKDAY + 3);
+        NAMES.insert("یک شنبه", WEEKDAY);
+        NAMES.insert("دو شنبه", WEEKDAY + 1);
+    }
+
+    /**
+     * Adds a Persian month name, alone and followed by "ماه" attached or as a separate word
+     */
+    private static void insertPersianMonth(String name, int month) {
+        NAMES.insert(name, month);
+        NAMES.insert(name + "ماه", month);
+        NAMES.insert(name + " ماه", month);
+    }
+
+    /**
+     * Returns the Persian name of a month
+     *
+     * @param month the month (1-12, not zero based)
+     * @return the Persian month name
+     */
+    public static String monthName(int month) {
+        return PERSIAN_MONTHS[month];
+    }
+
+    /**
+     * Returns the Persian name of a day of week
+     *
+     * @param dayOfWeek the day of week as in {@link java.util.Calendar#DAY_OF_WEEK} (1 is Sunday, 7 is Saturday)
+     * @return the Persian weekday name
+     */
+    public static String weekdayName(int dayOfWeek) {
+        return PERSIAN_WEEKDAYS[dayOfWeek - 1];
+    }
+
+    /**
+     * Parses a textual Jalali date to a packed date
+     *
+     * @param text the date, e.g. "۱۴ مهر ۱۴۰۲" or "14 Mehr 1402"
+     * @return the packed date
+     * @throws DateException if the text is not a valid textual date
+     */
+    public static int parsePacked(String text) throws DateException {
+        boolean weekday = false;
+        int day = -1;
+        int month = -1;
+        int year = -1;
+        int pos = 0;
+        int length = text.length();
+        while (true) {
+            while (pos < length && isSeparator(text.charAt(pos))) {
+                pos++;
+            }
+            if (pos == length) {
+                break;
+            }
+            int digit = digit(text.charAt(pos));
+            if (digit >= 0) {
+                int value = 0;
+                int digits = 0;
+                while (pos < length && (digit = digit(text.charAt(pos))) >= 0) {
+                    if (++digits > 5) {
+                        throw new DateException();
+                    }
+                    value = value * 10 + digit;
+                    pos++;
+                }
+                if (day < 0) {
+                    day = value;
+                } else if (month > 0 && year < 0) {
+                    year = value;
+                } else {
+                    throw new DateException();
+                }
+            } else {
+                long match = NAMES.longestMatch(text, pos);
+                if (match < 0) {
+                    throw new DateException();
+                }
+                int value = (int) (match >>> 32);
+                pos = (int) match;
+                if (value >= WEEKDAY && !weekday && day < 0) {
+                    weekday = true;
+                } else if (value < WEEKDAY && day > 0 && month < 0) {
+                    month = value;
+                } else {
+                    throw new DateException();
+                }
+            }
+        }
+        if (year < 1 || month < 1 || day < 1 || day > JalCalUtil.persianMonthLength(year, month)) {
+            throw new DateException();
+        }
+        return JalaliDateColumn.pack(year, month, day);
+    }
+
+    /**
+     * Parses a textual Jalali date to a Gregorian date at midnight in the default time zone
+     *
+     * @param text the date, e.g. "شنبه ۴ فروردین ۱۴۰۳"
+     * @return the corresponding java.util.Date
+     * @throws DateException if the text is not a valid textual date
+     */
+    public static Date parse(String text) throws DateException {
+        int packed = parsePacked(text);
+        return JalCal.jalaliToGregorian(JalaliDateColumn.year(packed), JalaliDateColumn.month(packed),
+                JalaliDateColumn.day(packed), 0, 0, 0);
+    }
+
+    /**
+     * Formats a packed date with a Persian month name and Persian digits, e.g. "۱۴ مهر ۱۴۰۲"
+     *
+     * @param packed  the packed date
+     * @param weekday if true the Persian weekday name is prepended
+     * @return the formatted date
+     */
+    public static String format(int packed, boolean weekday) {
+        StringBuilder sb = new StringBuilder(24);
+        if (weekday) {
+            int year = JalaliDateColumn.year(packed);
+            int month = JalaliDateColumn.month(packed);
+            int day = JalaliDateColumn.day(packed);
+            sb.append(weekdayName(dayOfWeek(JalCalUtil.fixedFromPersianFast(year, month, day)))).append(' ');
+        }
+        appendPersianDigits(sb, JalaliDateColumn.day(packed));
+        sb.append(' ').append(PERSIAN_MONTHS[JalaliDateColumn.month(packed)]).append(' ');
+        appendPersianDigits(sb, JalaliDateColumn.year(packed));
+        return sb.toString();
+    }
+
+    /**
+     * Formats a packed date with a transliterated month name and ASCII digits, e.g. "14 Mehr 1402"
+     *
+     * @param packed the packed date
+     * @return the formatted date
+     */
+    public static String formatLatin(int packed) {
+        return JalaliDateColumn.day(packed) + " " + LATIN_MONTHS[JalaliDateColumn.month(packed)] + " "
+                + JalaliDateColumn.year(packed);
+    }
+
+    /**
+     * Day of week of a fixed day number, as in {@link java.util.Calendar#DAY_OF_WEEK}
+     */
+    static int dayOfWeek(long fixedDay) {
+        return (int) Math.floorMod(fixedDay, 7L) + 1;
+    }
+
+    private static void appendPersianDigits(StringBuilder sb, int value) {
+        int start = sb.length();
+        do {
+            sb.insert(start, (char) ('۰' + value % 10));
+            value /= 10;
+        } while (value > 0);
+    }
+
+    private static boolean isSeparator(char c) {
+        return c <= ' ' || c == ',' || c == '،' || c == ZWNJ || Character.isWhitespace(c) || Character.isSpaceChar(c);
+    }
+
+    /**
+     * @return the value of an ASCII, Persian or Arabic-Indic digit, or -1
+     */
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= '۰' && c <= '۹') {
+            return c - '۰';
+        } else if (c >= '٠' && c <= '٩') {
+            return c - '٠';
+        }
+        return -1;
+    }
+
+    /**
+     * Folds the character variants that should match the same name
+     */
+    private static char normalize(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return (char) (c + ('a' - 'A'));
+        }
+        return switch (c) {
+            case '\u064A', '\u0649' -> 'ی'; // Arabic yeh and alef maksura
+            case '\u0643' -> 'ک'; // Arabic kaf
+            case 'آ' -> 'ا';
+            default -> c;
+        };
+    }
+
+    /**
+     * A trie node; children are kept in small parallel arrays sorted by character
+     */
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int value = -1;
+
+        void insert(String name, int nameValue) {
+            Node node = this;
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (c == ZWNJ) {
+                    continue;
+                }
+                node = node.childOrCreate(normalize(c));
+            }
+            node.value = nameValue;
+        }
+
+        private Node childOrCreate(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = child;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        /**
+         * Finds the longest name starting at {@code from} that ends at a word boundary
+         *
+         * @return {@code value << 32 | endIndex}, or -1 if no name matches
+         */
+        long longestMatch(String text, int from) {
+            long best = -1;
+            Node node = this;
+            int pos = from;
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                pos++;
+                if (c == ZWNJ) {
+                    continue;
+                }
+                if (isSeparator(c)) {
+                    // a run of separators matches the single space of a name such as "مهر ماه"
+                    while (pos < text.length() && isSeparator(text.charAt(pos))) {
+                        pos++;
+                    }
+                    c = ' ';
+                }
+                int index = Arrays.binarySearch(node.keys, normalize(c));
+                if (index < 0) {
+                    break;
+                }
+                node = node.children[index];
+                if (node.value >= 0 && (pos == text.length() || !Character.isLetter(text.charAt(pos)))) {
+                    best = (long) node.value << 32 | pos;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package com.github.sbahmani.jalcal.util;
 
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Random;
 import java.util.TimeZone;
 
 import static org.fest.assertions.Assertions.*;
@@ -124,4 +125,106 @@ public class JalCalTest {
 
     }
 
+    @Test
+    public void testEuclideanAffineEngineMatchesClassic() {
+        long first = JalCalUtil.fixedFromPersianClassic(1, 1, 1);
+        long last = JalCalUtil.fixedFromPersianClassic(3100, 1, 1);
+        for (long date = first; date <= last; date++) {
+            long[] persian = JalCalUtil.persianFromFixedClassic(date);
+            assertThat(JalCalAffine.persianFromFixed(date)).isEqualTo(persian);
+            assertThat(JalCalAffine.fixedFromPersian(persian[0], (int) persian[1], (int) persian[2])).isEqualTo(date);
+            long[] gregorian = JalCalUtil.gregorianFromFixedClassic(date);
+            assertThat(JalCalAffine.gregorianFromFixed(date)).isEqualTo(gregorian);
+            assertThat(JalCalAffine.fixedFromGregorian(gregorian[0], (int) gregorian[1], (int) gregorian[2])).isEqualTo(date);
+        }
+        for (long date = 1; date < first; date++) {
+            assertThat(JalCalAffine.gregorianFromFixed(date)).isEqualTo(JalCalUtil.gregorianFromFixedClassic(date));
+        }
+
+        JalCalUtil.Engine previous = JalCalUtil.getEngine();
+        try {
+            JalCalUtil.setEngine(JalCalUtil.Engine.EUCLIDEAN_AFFINE);
+            assertThat(JalCal.gregorianToJalali(new Date(1426883400000L), true)).isEqualTo("01/01/1394   00:00:00");
+            assertThat(JalCalUtil.persianFastFromFixed(JalCalUtil.fixedFromGregorian(2025, 3, 20))).isEqualTo(new long[]{1403, 12, 30});
+        } finally {
+            JalCalUtil.setEngine(previous);
+        }
+    }
+
+    @Test
+    public void testEuclideanAffineEngineMatchesClassicToBounds() {
+        // sampled over the whole range each conversion handles without falling back, densely near the bounds
+        Random random = new Random(27);
+        long persianFirst = JalCalUtil.fixedFromPersianClassic(1, 1, 1);
+        long persianLast = persianFirst + JalCalAffine.PERSIAN_MAX_DAYS;
+        for (int i = 0; i < 200_000; i++) {
+            checkPersianFromFixed(persianFirst + (long) (random.nextDouble() * JalCalAffine.PERSIAN_MAX_DAYS));
+            checkGregorianFromFixed(1 + (long) (random.nextDouble() * JalCalAffine.GREGORIAN_MAX_DATE));
+            long persianYear = 1 + (long) (random.nextDouble() * JalCalAffine.PERSIAN_MAX_YEAR);
+            checkFixedFromPersian(persianYear, 1 + random.nextInt(12), 1 + random.nextInt(29));
+            long gregorianYear = 1 + (long) (random.nextDouble() * JalCalAffine.GREGORIAN_MAX_YEAR);
+            checkFixedFromGregorian(gregorianYear, 1 + random.nextInt(12), 1 + random.nextInt(28));
+        }
+        for (long date = persianLast - 50_000; date <= persianLast + 1000; date++) {
+            checkPersianFromFixed(date);
+        }
+        for (long date = JalCalAffine.GREGORIAN_MAX_DATE - 50_000; date <= JalCalAffine.GREGORIAN_MAX_DATE + 1000; date++) {
+            checkGregorianFromFixed(date);
+        }
+        for (long year = JalCalAffine.PERSIAN_MAX_YEAR - 200; year <= JalCalAffine.PERSIAN_MAX_YEAR + 10; year++) {
+            for (int month = 1; month <= 12; month++) {
+                checkFixedFromPersian(year, month, 1);
+                checkFixedFromPersian(year, month, 29);
+            }
+        }
+        for (long year = JalCalAffine.GREGORIAN_MAX_YEAR - 200; year <= JalCalAffine.GREGORIAN_MAX_YEAR + 10; year++) {
+            for (int month = 1; month <= 12; month++) {
+                checkFixedFromGregorian(year, month, 1);
+                checkFixedFromGregorian(year, month, 28);
+            }
+        }
+    }
+
+    @Test
+    public void testFixedDayOfMatchesCalendar() {
+        // the offset-based day of a date agrees with java.util.Calendar, also across DST changes
+        try {
+            for (String id : new String[]{"Asia/Tehran", "America/Sao_Paulo", "Australia/Lord_Howe", "Pacific/Apia"}) {
+                TimeZone.setDefault(TimeZone.getTimeZone(id));
+                Calendar calendar = Calendar.getInstance();
+                Random random = new Random(1403);
+                for (int i = 0; i < 50_000; i++) {
+                    // 1900 to 2100, and before the Julian to Gregorian cutover
+                    long millis = i % 100 == 0
+                            ? -15_000_000_000_000L + (long) (random.nextDouble() * 2_700_000_000_000L)
+                            : -2_208_988_800_000L + (long) (random.nextDouble() * 6_311_347_200_000L);
+                    calendar.setTimeInMillis(millis);
+                    long expected = JalCalUtil.fixedFromGregorian(calendar.get(Calendar.YEAR),
+                            calendar.get(Calendar.MONTH) + 1, calendar.get(Calendar.DAY_OF_MONTH));
+                    assertThat(JalCal.fixedDayOf(new Date(millis))).isEqualTo(expected);
+                }
+            }
+        } finally {
+            // other tests set user.timezone, so let the default be derived from it again
+            TimeZone.setDefault(null);
+        }
+    }
+
+    private static void checkPersianFromFixed(long date) {
+        assertThat(JalCalAffine.persianFromFixed(date)).isEqualTo(JalCalUtil.persianFromFixedClassic(date));
+    }
+
+    private static void checkGregorianFromFixed(long date) {
+        assertThat(JalCalAffine.gregorianFromFixed(date)).isEqualTo(JalCalUtil.gregorianFromFixedClassic(date));
+    }
+
+    private static void checkFixedFromPersian(long year, int month, int day) {
+        assertThat(JalCalAffine.fixedFromPersian(year, month, day))
+                .isEqualTo(JalCalUtil.fixedFromPersianClassic(year, month, day));
+    }
+
+    private static void checkFixedFromGregorian(long year, int month, int day) {
+        assertThat(JalCalAffine.fixedFromGregorian(year, month, day))
+                .isEqualTo(JalCalUtil.fixedFromGregorianClassic(year, month, day));
+    }
 }
@@ -0,0 +1,76 @@
+package com.github.sbahmani.jalcal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author sjb
+ */
+public class JalaliCursorTest {
+
+    private static long[] expected(long epochMillis, TimeZone zone) {
+        Calendar calendar = Calendar.getInstance(zone);
+        calendar.setTimeInMillis(epochMillis);
+        return JalCalUtil.persianFastFromFixed(JalCalUtil.fixedFromGregorian(
+                calendar.get(Calendar.YEAR),
+                calendar.get(Calendar.MONTH) + 1,
+                calendar.get(Calendar.DAY_OF_MONTH)));
+    }
+
+    @Test
+    public void testSortedSequenceMatchesFullConversion() {
+        // Tehran observed daylight saving time until 1401, with transitions at midnight
+        TimeZone tehran = TimeZone.getTimeZone("Asia/Tehran");
+        JalaliCursor cursor = new JalaliCursor(ZoneId.of("Asia/Tehran"));
+        Random random = new Random(1393);
+        long time = 315_532_800_000L; // 1980-01-01T00:00:00Z
+        long end = 1_900_000_000_000L;
+        while (time < end) {
+            cursor.advanceTo(time);
+            long[] persian = expected(time, tehran);
+            assertThat(new long[]{cursor.getYear(), cursor.getMonth(), cursor.getDay()}).isEqualTo(persian);
+            // mostly small steps, sometimes a large jump or a step back
+            int kind = random.nextInt(100);
+            if (kind == 0) {
+                time += random.nextInt(400) * 86_400_000L;
+            } else if (kind == 1) {
+                time -= random.nextInt(40) * 86_400_000L;
+            } else {
+                time += random.nextInt(6 * 3600_000);
+            }
+        }
+    }
+
+    @Test
+    public void testFormatDate() {
+        System.setProperty("user.timezone", "Asia/Tehran");
+        Date date = new Date(1426883400000L);
+        JalaliCursor cursor = new JalaliCursor().advanceTo(date);
+        assertThat(cursor.formatDate(true)).isEqualTo(JalCal.gregorianToJalaliDate(date, true));
+        assertThat(cursor.formatDate(false)).isEqualTo(JalCal.gregorianToJalaliDate(date, false));
+        long fixed = JalCalUtil.fixedFromPersianFast(1403, 12, 29);
+        assertThat(cursor.advanceToFixedDay(fixed + 1).formatDate(false)).isEqualTo("1403/12/30");
+        assertThat(cursor.advanceToFixedDay(fixed + 2).formatDate(false)).isEqualTo("1404/01/01");
+    }
+
+    @Test
+    public void testAdvanceToAfterAdvanceToFixedDay() {
+        ZoneId tehran = ZoneId.of("Asia/Tehran");
+        long time = 1426883400000L + 3600_000L; // 1394/01/01 01:00 in Tehran
+        JalaliCursor cursor = new JalaliCursor(tehran).advanceTo(time);
+        long fixed = cursor.getFixedDay();
+        cursor.advanceToFixedDay(fixed + 40);
+        assertThat(cursor.formatDate(false)).isEqualTo("1394/02/10");
+        assertThat(cursor.advanceTo(time + 60_000L).formatDate(false)).isEqualTo("1394/01/01");
+        cursor.advanceToFixedDay(fixed - 3);
+        assertThat(cursor.formatDate(false)).isEqualTo("1393/12/27");
+        assertThat(cursor.advanceTo(time + 120_000L).formatDate(false)).isEqualTo("1394/01/01");
+    }
+}
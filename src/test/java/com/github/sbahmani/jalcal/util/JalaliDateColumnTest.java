@@ -0,0 +1,92 @@
+package com.github.sbahmani.jalcal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.IntBuffer;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author sjb
+ */
+public class JalaliDateColumnTest {
+
+    @Test
+    public void testSortAndRangeQueries() throws DateException {
+        JalaliDateColumn column = new JalaliDateColumn();
+        Random random = new Random(1402);
+        long first = JalCalUtil.fixedFromPersianFast(1398, 1, 1);
+        int[] expected = new int[5000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = JalaliDateColumn.packFixedDay(first + random.nextInt(5 * 365));
+            column.append(expected[i]);
+        }
+        assertThat(column.isSorted()).isFalse();
+        column.sort();
+        Arrays.sort(expected);
+        assertThat(column.isSorted()).isTrue();
+        for (int i = 0; i < expected.length; i++) {
+            assertThat(column.get(i)).isEqualTo(expected[i]);
+        }
+
+        int[] year = column.yearRange(1400);
+        int[] month = column.monthRange(1400, 12);
+        int[] day = column.dayRange(1400, 12, 29);
+        for (int i = 0; i < column.size(); i++) {
+            int packed = column.get(i);
+            assertThat(i >= year[0] && i < year[1]).isEqualTo(JalaliDateColumn.year(packed) == 1400);
+            assertThat(i >= month[0] && i < month[1])
+                    .isEqualTo(JalaliDateColumn.year(packed) == 1400 && JalaliDateColumn.month(packed) == 12);
+            assertThat(i >= day[0] && i < day[1]).isEqualTo(packed == JalaliDateColumn.pack(1400, 12, 29));
+        }
+
+        int[] months = column.distinctMonths();
+        int[] counts = column.countByMonth();
+        assertThat(months.length).isEqualTo(60);
+        assertThat(months[0]).isEqualTo(JalaliDateColumn.pack(1398, 1, 1));
+        int total = 0;
+        for (int i = 0; i < months.length; i++) {
+            int[] range = column.monthRange(JalaliDateColumn.year(months[i]), JalaliDateColumn.month(months[i]));
+            assertThat(counts[i]).isEqualTo(range[1] - range[0]);
+            total += counts[i];
+        }
+        assertThat(total).isEqualTo(column.size());
+    }
+
+    @Test
+    public void testViewsAndConversions() throws DateException {
+        ZoneId tehran = ZoneId.of("Asia/Tehran");
+        long[] millis = {1426883400000L, 1520956290000L, 1742470261000L};
+        JalaliDateColumn column = JalaliDateColumn.ofEpochMillis(millis, tehran);
+        assertThat(column.isSorted()).isTrue();
+        assertThat(column.format(0, true)).isEqualTo("01/01/1394");
+        assertThat(column.format(2, false)).isEqualTo("1403/12/30");
+
+        IntBuffer view = column.asBuffer(1, 3);
+        assertThat(view.remaining()).isEqualTo(2);
+        assertThat(view.get(1)).isEqualTo(JalaliDateColumn.pack(1403, 12, 30));
+        assertThat(view.isReadOnly()).isTrue();
+
+        long[] starts = column.toEpochMillis(tehran);
+        assertThat(starts[0]).isEqualTo(1426883400000L);
+        assertThat(JalaliDateColumn.ofEpochMillis(starts, tehran).asBuffer()).isEqualTo(column.asBuffer());
+
+        JalaliDateColumn parsed = new JalaliDateColumn();
+        new JalaliDateParser().parseAll(List.of("1394/01/01", "1396/12/22", "1403/12/30"), parsed);
+        assertThat(parsed.asBuffer()).isEqualTo(column.asBuffer());
+
+        // 1402 is not a leap year
+        assertThrows(DateException.class, () -> parsed.append(1402, 12, 30));
+        // a larger year would pack to a negative int and break the sort order
+        assertThrows(DateException.class, () -> parsed.append(JalaliDateColumn.MAX_YEAR + 1, 1, 1));
+        assertThrows(DateException.class, () -> parsed.append(5_000_000, 1, 1));
+        parsed.append(JalaliDateColumn.MAX_YEAR, 1, 1);
+        assertThat(parsed.isSorted()).isTrue();
+        assertThat(parsed.get(3) > 0).isTrue();
+    }
+}
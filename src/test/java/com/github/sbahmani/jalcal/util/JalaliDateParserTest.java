@@ -0,0 +1,78 @@
+package com.github.sbahmani.jalcal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author sjb
+ */
+public class JalaliDateParserTest {
+
+    @Test
+    public void testSniffLayouts() throws DateException {
+        JalaliDateParser parser = new JalaliDateParser();
+        assertThat(parser.sniff(List.of("1402/07/15", "1402/7/1")).toString()).isEqualTo("yyyy/MM/dd");
+        assertThat(parser.sniff(List.of("15-07-1402 10:20:30")).toString()).isEqualTo("dd-MM-yyyy HH:mm:ss");
+        assertThat(parser.sniff(List.of("14020715")).toString()).isEqualTo("yyyyMMdd");
+        assertThat(parser.sniff(List.of("020715 102030")).toString()).isEqualTo("yyMMdd HHmmss");
+        // 1402/12/31 does not exist, so the second sample rules out year first
+        assertThat(parser.sniff(List.of("01/02/03", "02/12/31")).toString()).isEqualTo("dd/MM/yy");
+        // 45 cannot be a day, so the second sample rules out day first
+        assertThat(parser.sniff(List.of("01/02/03", "45/01/02")).toString()).isEqualTo("yy/MM/dd");
+        // both orders fit, year first wins
+        assertThat(parser.sniff(List.of("01/02/03", "02/01/31")).toString()).isEqualTo("yy/MM/dd");
+    }
+
+    @Test
+    public void testParseAllMatchesJalCal() throws DateException {
+        System.setProperty("user.timezone", "Asia/Tehran");
+        JalaliDateParser parser = new JalaliDateParser();
+        Date[] dates = parser.parseAll(Arrays.asList("1393/5/14", "1403/12/30", "14/5/1393", "1402.07.15"));
+        assertThat(dates[0]).isEqualTo(JalCal.jalaliToGregorian("1393/5/14"));
+        assertThat(dates[1]).isEqualTo(JalCal.jalaliToGregorian(1403, 12, 30, 0, 0, 0));
+        assertThat(dates[2]).isEqualTo(JalCal.jalaliToGregorian("14/5/1393"));
+        assertThat(dates[3]).isEqualTo(JalCal.jalaliToGregorian(1402, 7, 15, 0, 0, 0));
+        assertThat(parser.getLayout().toString()).isEqualTo("yyyy.MM.dd");
+
+        long time = 1520956290000L;
+        String value = JalCal.gregorianToJalali(new Date(time), true);
+        assertThat(new JalaliDateParser().parse(value).getTime()).isEqualTo(time);
+    }
+
+    @Test
+    public void testPivotAndInvalidValues() throws DateException {
+        JalaliDateParser parser = new JalaliDateParser(4, 50);
+        int[] fields = new int[6];
+        parser.parseFields("020715", fields);
+        assertThat(fields).isEqualTo(new int[]{1402, 7, 15, 0, 0, 0});
+        parser.parseFields("990631", fields);
+        assertThat(fields).isEqualTo(new int[]{1399, 6, 31, 0, 0, 0});
+        assertThat(JalaliDateHelper.extractDateFromJalaliShortDateTime("020715", "102030", 50))
+                .isEqualTo(JalCal.jalaliToGregorian(1402, 7, 15, 10, 20, 30));
+        for (String invalid : List.of("1402/13/01", "1402/12/30", "1402/07/15 25:00:00", "abc", "")) {
+            assertThrows(DateException.class, () -> parser.parseFields(invalid, fields), invalid);
+        }
+    }
+
+    @Test
+    public void testBadSamplesAndOutliers() throws DateException {
+        JalaliDateParser parser = new JalaliDateParser();
+        // a header row and a blank cell do not prevent detection from the rest of the sample
+        assertThat(parser.sniff(List.of("تاریخ", "", "15/07/1402", "16/07/1402")).toString()).isEqualTo("dd/MM/yyyy");
+        assertThrows(DateException.class, () -> parser.sniff(List.of("تاریخ", "")));
+
+        // a single outlier is parsed with its own layout without replacing the locked one
+        JalaliDateParser column = new JalaliDateParser();
+        JalaliDateParser.Layout locked = column.sniff(List.of("1402/07/14"));
+        Date[] dates = column.parseAll(List.of("1402/07/15", "16-07-1402", "1402/07/17", "1402/07/18"));
+        assertThat(column.getLayout()).isSameAs(locked);
+        assertThat(dates[1]).isEqualTo(JalCal.jalaliToGregorian(1402, 7, 16, 0, 0, 0));
+        assertThat(dates[2]).isEqualTo(JalCal.jalaliToGregorian(1402, 7, 17, 0, 0, 0));
+    }
+}
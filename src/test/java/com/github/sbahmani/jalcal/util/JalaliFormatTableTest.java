@@ -0,0 +1,82 @@
+package com.github.sbahmani.jalcal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.Date;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+/**
+ * @author sjb
+ */
+public class JalaliFormatTableTest {
+
+    private static Date noonOf(long fixedDay) {
+        long[] gregorian = JalCalUtil.gregorianFromFixed(fixedDay);
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set((int) gregorian[0], (int) gregorian[1] - 1, (int) gregorian[2], 12, 0, 0);
+        return calendar.getTime();
+    }
+
+    @Test
+    public void testTableMatchesNormalConversion() {
+        JalaliFormatTable table = new JalaliFormatTable(1380, 1420);
+        assertThat(table.footprintBytes()).isEqualTo(0L);
+        long first = JalCalUtil.fixedFromPersianFast(1379, 12, 25);
+        long last = JalCalUtil.fixedFromPersianFast(1421, 1, 5);
+        byte[] buffer = new byte[8];
+        for (long fixed = first; fixed <= last; fixed++) {
+            Date date = noonOf(fixed);
+            String dayFirst = JalCal.gregorianToJalaliDate(date, true);
+            String yearFirst = JalCal.gregorianToJalaliDate(date, false);
+            String shortDate = JalaliDateHelper.convertToJalaliDateFormat(date);
+            assertThat(table.format(fixed, JalaliFormatTable.Format.DD_MM_YYYY)).isEqualTo(dayFirst);
+            assertThat(table.format(fixed, JalaliFormatTable.Format.YYYY_MM_DD)).isEqualTo(yearFirst);
+            assertThat(table.format(fixed, JalaliFormatTable.Format.YYMMDD)).isEqualTo(shortDate);
+            assertThat(table.format(fixed, JalaliFormatTable.Format.YYYYMMDD)).isEqualTo(yearFirst.replace("/", ""));
+            int written = table.writeTo(fixed, JalaliFormatTable.Format.YYYYMMDD, buffer, 0);
+            assertThat(new String(buffer, 0, written, StandardCharsets.UTF_8)).isEqualTo(yearFirst.replace("/", ""));
+            ByteBuffer bytes = table.bytes(fixed, JalaliFormatTable.Format.YYYY_MM_DD);
+            assertThat(StandardCharsets.UTF_8.decode(bytes).toString()).isEqualTo(yearFirst);
+        }
+        assertThat(table.footprintBytes() > 0).isTrue();
+    }
+
+    @Test
+    public void testOutsideWindow() {
+        JalaliFormatTable table = new JalaliFormatTable(1380, 1420);
+        long year500 = JalCalUtil.fixedFromPersianFast(500, 1, 1);
+        assertThat(table.format(year500, JalaliFormatTable.Format.YYYY_MM_DD)).isEqualTo("500/01/01");
+        assertThat(table.format(year500, JalaliFormatTable.Format.DD_MM_YYYY)).isEqualTo("01/01/500");
+        long year10400 = JalCalUtil.fixedFromPersianFast(10400, 7, 9);
+        assertThat(table.format(year10400, JalaliFormatTable.Format.YYYYMMDD)).isEqualTo("104000709");
+        byte[] buffer = new byte[16];
+        assertThat(table.writeTo(year10400, JalaliFormatTable.Format.YYYY_MM_DD, buffer, 0)).isEqualTo(11);
+        assertThat(new String(buffer, 0, 11, StandardCharsets.UTF_8)).isEqualTo("10400/07/09");
+        assertThat(table.bytes(year10400, JalaliFormatTable.Format.YYYY_MM_DD).remaining()).isEqualTo(11);
+        long fixed = JalCalUtil.fixedFromPersianFast(1200, 5, 3);
+        assertThat(table.format(fixed, JalaliFormatTable.Format.YYYY_MM_DD))
+                .isEqualTo(JalCal.gregorianToJalaliDate(noonOf(fixed), false));
+    }
+
+    @Test
+    public void testInstalledTable() {
+        JalaliFormatTable table = new JalaliFormatTable(1390, 1410).buildAll();
+        Date date = new Date(1482148019498L);
+        String expected = JalaliDateHelper.convertToJalali4DigitSlashDateFormat(date);
+        try {
+            JalaliFormatTable.install(table);
+            String shared = JalaliDateHelper.convertToJalali4DigitSlashDateFormat(date);
+            assertThat(shared).isEqualTo(expected);
+            assertThat(shared == JalCal.gregorianToJalaliDate(date, false)).isTrue();
+            // outside the window the normal conversion is used
+            assertThat(JalCal.gregorianToJalaliDate(new Date(0L), false)).startsWith("1348/10/");
+        } finally {
+            JalaliFormatTable.install(null);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.sbahmani.jalcal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author sjb
+ */
+public class JalaliIntervalResolverTest {
+
+    private static final ZoneId TEHRAN = ZoneId.of("Asia/Tehran");
+
+    private static long startOf(int year, int month, int day) {
+        return LocalDate.of(year, month, day).atStartOfDay(TEHRAN).toInstant().toEpochMilli();
+    }
+
+    @Test
+    public void testResolvePeriods() throws DateException {
+        JalaliIntervalResolver resolver = new JalaliIntervalResolver();
+
+        assertThat(resolver.resolve(JalaliPeriod.month(1402, 7), TEHRAN))
+                .isEqualTo(new JalaliInterval(startOf(2023, 9, 23), startOf(2023, 10, 23)));
+        assertThat(resolver.resolve(JalaliPeriod.quarter(1401, 3), TEHRAN))
+                .isEqualTo(new JalaliInterval(startOf(2022, 9, 23), startOf(2022, 12, 22)));
+        assertThat(resolver.resolve(JalaliPeriod.year(1403), TEHRAN))
+                .isEqualTo(new JalaliInterval(startOf(2024, 3, 20), startOf(2025, 3, 21)));
+        assertThat(resolver.resolve(JalaliPeriod.day(1403, 12, 30), TEHRAN))
+                .isEqualTo(new JalaliInterval(startOf(2025, 3, 20), startOf(2025, 3, 21)));
+        // week 1 of 1403 is the Saturday-starting week containing 1 Farvardin (Wednesday 2024-03-20)
+        assertThat(resolver.resolve(JalaliPeriod.week(1403, 1), TEHRAN))
+                .isEqualTo(new JalaliInterval(startOf(2024, 3, 16), startOf(2024, 3, 23)));
+        assertThat(resolver.resolve(JalaliPeriod.week(1403, 12), TEHRAN))
+                .isEqualTo(new JalaliInterval(startOf(2024, 6, 1), startOf(2024, 6, 8)));
+        assertThat(resolver.resolve(JalaliPeriod.month(1402, 11), 3, TEHRAN))
+                .isEqualTo(new JalaliInterval(startOf(2024, 1, 21), startOf(2024, 4, 20)));
+        assertThat(resolver.cacheSize()).isEqualTo(7);
+    }
+
+    @Test
+    public void testResolveRelative() throws DateException {
+        JalaliIntervalResolver resolver = new JalaliIntervalResolver();
+        // 1403/02/10 12:00 in Tehran
+        long now = startOf(2024, 4, 29) + 12 * 3600_000L;
+        assertThat(resolver.resolveRelative(JalaliPeriod.Unit.MONTH, -3, 3, now, TEHRAN))
+                .isEqualTo(resolver.resolve(JalaliPeriod.month(1402, 11), 3, TEHRAN));
+        assertThat(resolver.resolveRelative(JalaliPeriod.Unit.DAY, 0, 1, now, TEHRAN).contains(now)).isTrue();
+        assertThat(resolver.resolveRelative(JalaliPeriod.Unit.WEEK, 0, 1, now, TEHRAN).contains(now)).isTrue();
+        assertThat(resolver.resolveRelative(JalaliPeriod.Unit.QUARTER, -1, 1, now, TEHRAN))
+                .isEqualTo(resolver.resolve(JalaliPeriod.quarter(1402, 4), TEHRAN));
+    }
+
+    @Test
+    public void testWeeksAndCache() throws DateException {
+        for (int year = 1380; year <= 1420; year++) {
+            int weeks = JalaliPeriod.weeksInYear(year);
+            assertThat(weeks == 52 || weeks == 53).isTrue();
+            JalaliPeriod last = JalaliPeriod.week(year, weeks);
+            assertThat(last.plus(1)).isEqualTo(JalaliPeriod.week(year + 1, 1));
+            assertThat(JalaliPeriod.containing(JalaliPeriod.Unit.WEEK, last.firstDay() + 6)).isEqualTo(last);
+        }
+        JalaliIntervalResolver resolver = new JalaliIntervalResolver(2);
+        resolver.resolve(JalaliPeriod.year(1401), TEHRAN);
+        resolver.resolve(JalaliPeriod.year(1402), TEHRAN);
+        resolver.resolve(JalaliPeriod.year(1403), TEHRAN);
+        assertThat(resolver.cacheSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void testInvalidPeriod() throws DateException {
+        assertThrows(DateException.class, () -> JalaliPeriod.day(1402, 12, 30));
+        assertThrows(DateException.class, () -> JalaliPeriod.year(JalaliPeriod.MAX_YEAR + 1));
+        JalaliIntervalResolver resolver = new JalaliIntervalResolver();
+        assertThrows(IllegalArgumentException.class,
+                () -> resolver.resolve(JalaliPeriod.year(1402), Integer.MAX_VALUE, ZoneId.of("UTC")));
+        assertThrows(IllegalArgumentException.class, () -> JalaliPeriod.month(1402, 1).plus(Integer.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> JalaliPeriod.day(1402, 1, 1).plus(Integer.MIN_VALUE));
+        // the current period itself is outside years 1 to MAX_YEAR
+        long gregorian10700 = LocalDate.of(10700, 6, 1).atStartOfDay(TEHRAN).toInstant().toEpochMilli();
+        long gregorian500 = LocalDate.of(500, 6, 1).atStartOfDay(TEHRAN).toInstant().toEpochMilli();
+        for (JalaliPeriod.Unit unit : JalaliPeriod.Unit.values()) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> resolver.resolveRelative(unit, 0, 1, gregorian10700, TEHRAN));
+            assertThrows(IllegalArgumentException.class,
+                    () -> resolver.resolveRelative(unit, 0, 1, gregorian500, TEHRAN));
+        }
+        assertThat(JalaliPeriod.month(JalaliPeriod.MAX_YEAR, 12).endDay())
+                .isEqualTo(JalCalUtil.fixedFromPersianFast(JalaliPeriod.MAX_YEAR + 1, 1, 1));
+        assertThat(resolver.resolve(JalaliPeriod.quarter(JalaliPeriod.MAX_YEAR, 4), TEHRAN).getEndMillis())
+                .isEqualTo(resolver.resolve(JalaliPeriod.year(JalaliPeriod.MAX_YEAR), TEHRAN).getEndMillis());
+    }
+}
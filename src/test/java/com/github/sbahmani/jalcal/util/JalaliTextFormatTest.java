@@ -0,0 +1,61 @@
+package com.github.sbahmani.jalcal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author sjb
+ */
+public class JalaliTextFormatTest {
+
+    @Test
+    public void testParseTextualDates() throws DateException {
+        int mehr14 = JalaliDateColumn.pack(1402, 7, 14);
+        for (String text : List.of(
+                "۱۴ مهر ۱۴۰۲",
+                "14 Mehr 1402",
+                "14 MEHR, 1402",
+                "جمعه ۱۴ مهر ۱۴۰۲",
+                "جمعه، ١٤ مهر ١٤٠٢",
+                "Jomeh 14 mehr 1402",
+                "۱۴ مهرماه ۱۴۰۲",
+                "۱۴ مهر ماه ۱۴۰۲",
+                "۱۴ مهر  ماه ۱۴۰۲",
+                "۱۴ مهر\tماه ۱۴۰۲",
+                "۱۴\u00A0مهر\u00A0ماه\u00A0۱۴۰۲",
+                "۱۴ مهر‌ماه ۱۴۰۲",
+                "جمعه ۱۴ مهر ماه ۱۴۰۲",
+                "  ۱۴مهر۱۴۰۲ ")) {
+            assertThat(JalaliTextFormat.parsePacked(text)).isEqualTo(mehr14);
+        }
+        // ZWNJ, a space, or nothing between the parts of a weekday name; Arabic yeh from OCR
+        assertThat(JalaliTextFormat.parsePacked("سه‌شنبه ۱ آبان ۱۴۰۲")).isEqualTo(JalaliDateColumn.pack(1402, 8, 1));
+        assertThat(JalaliTextFormat.parsePacked("سه شنبه ۱ ابان ۱۴۰۲")).isEqualTo(JalaliDateColumn.pack(1402, 8, 1));
+        assertThat(JalaliTextFormat.parsePacked("سه  شنبه ۱ آبان ۱۴۰۲")).isEqualTo(JalaliDateColumn.pack(1402, 8, 1));
+        assertThat(JalaliTextFormat.parsePacked("۵ فروردين ۱۴۰۳")).isEqualTo(JalaliDateColumn.pack(1403, 1, 5));
+        assertThat(JalaliTextFormat.parsePacked("۳۰ اسفند ۱۴۰۳")).isEqualTo(JalaliDateColumn.pack(1403, 12, 30));
+        assertThat(JalaliTextFormat.parsePacked("۱ دی‌ماه ۱۴۰۲")).isEqualTo(JalaliDateColumn.pack(1402, 10, 1));
+        assertThat(JalaliTextFormat.parsePacked("31 Sharivar 1402")).isEqualTo(JalaliDateColumn.pack(1402, 6, 31));
+
+        System.setProperty("user.timezone", "Asia/Tehran");
+        assertThat(JalaliTextFormat.parse("شنبه ۴ فروردین ۱۴۰۳")).isEqualTo(JalCal.jalaliToGregorian("1403/01/04"));
+
+        for (String invalid : List.of("۳۰ اسفند ۱۴۰۲", "14 Mehrgan 1402", "Mehr 14 1402", "14 Mehr", "۱۴ ماه ۱۴۰۲", "")) {
+            assertThrows(DateException.class, () -> JalaliTextFormat.parsePacked(invalid), invalid);
+        }
+    }
+
+    @Test
+    public void testFormat() throws DateException {
+        int packed = JalaliDateColumn.pack(1402, 7, 14);
+        assertThat(JalaliTextFormat.format(packed, false)).isEqualTo("۱۴ مهر ۱۴۰۲");
+        assertThat(JalaliTextFormat.format(packed, true)).isEqualTo("جمعه ۱۴ مهر ۱۴۰۲");
+        assertThat(JalaliTextFormat.formatLatin(packed)).isEqualTo("14 Mehr 1402");
+        assertThat(JalaliTextFormat.parsePacked(JalaliTextFormat.format(packed, true))).isEqualTo(packed);
+        assertThat(JalCal.getPersianDay(JalaliTextFormat.parse("۱۴ مهر ۱۴۰۲"))).isEqualTo("جمعه");
+    }
+}